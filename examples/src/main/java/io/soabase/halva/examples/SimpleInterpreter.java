@@ -32,6 +32,7 @@ import static io.soabase.halva.examples.Var.Var;
 import static io.soabase.halva.examples.Var.VarTu;
 import static io.soabase.halva.examples.Wrong.Wrong;
 import static io.soabase.halva.matcher.Matcher.match;
+import static io.soabase.halva.matcher.Matcher.recur;
 import static io.soabase.halva.sugar.Sugar.Iterable;
 import static io.soabase.halva.sugar.Sugar.List;
 import static io.soabase.halva.sugar.Sugar.cons;
@@ -77,7 +78,7 @@ class SimpleInterpreter
 
         return match(e).
             caseOf( List(), () -> unitM(Wrong) ).
-            caseOf( Any.headAnyTail(Pair(y, b), e1), () -> x.equals(y.val()) ? unitM(b.val()) : lookup(x, e1.val()) ).
+            caseOf( Any.headAnyTail(Pair(y, b), e1), () -> x.equals(y.val()) ? unitM(b.val()) : recur(e1.val()) ).
         get();
     }
 
@@ -22,18 +22,22 @@ import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import io.soabase.halva.alias.TypeAlias;
 import io.soabase.halva.caseclass.CaseClass;
+import io.soabase.halva.caseclass.CaseClassMatcher;
 import io.soabase.halva.caseclass.CaseObject;
 import io.soabase.halva.comprehension.MonadicFor;
 import io.soabase.halva.container.TypeContainer;
 import io.soabase.halva.implicit.ImplicitClass;
 import io.soabase.halva.implicit.ImplicitContext;
 import io.soabase.halva.processor.alias.AliasPassFactory;
+import io.soabase.halva.processor.caseclass.CaseClassMatcherPassFactory;
 import io.soabase.halva.processor.caseclass.CaseClassPassFactory;
 import io.soabase.halva.processor.comprehension.MonadicForPassFactory;
 import io.soabase.halva.processor.container.Container;
 import io.soabase.halva.processor.container.ContainerManager;
 import io.soabase.halva.processor.container.ContainerPassFactory;
 import io.soabase.halva.processor.implicit.ImplicitPassFactory;
+import io.soabase.halva.processor.tuple.PrimitiveTuplePassFactory;
+import io.soabase.halva.tuple.details.PrimitiveTupleTemplate;
 import javax.annotation.Generated;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -70,28 +74,34 @@ import static io.soabase.halva.tuple.Tuple.Pair;
 @SupportedAnnotationTypes({
     "io.soabase.halva.caseclass.CaseClass",
     "io.soabase.halva.caseclass.CaseObject",
+    "io.soabase.halva.caseclass.CaseClassMatcher",
     "io.soabase.halva.alias.TypeAlias",
     "io.soabase.halva.comprehension.MonadicFor",
     "io.soabase.halva.implicit.ImplicitClass",
     "io.soabase.halva.implicit.ImplicitContext",
-    "io.soabase.halva.container.TypeContainer"
+    "io.soabase.halva.container.TypeContainer",
+    "io.soabase.halva.tuple.details.PrimitiveTupleTemplate"
 })
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 public class MasterProcessor extends AbstractProcessor
 {
     private static final AliasPassFactory aliasPassFactory = new AliasPassFactory();
     private static final CaseClassPassFactory caseClassPassFactory = new CaseClassPassFactory();
+    private static final CaseClassMatcherPassFactory caseClassMatcherPassFactory = new CaseClassMatcherPassFactory();
     private static final MonadicForPassFactory monadicForPassFactory = new MonadicForPassFactory();
     private static final ImplicitPassFactory implicitPassFactory = new ImplicitPassFactory();
     private static final ContainerPassFactory containerPassFactory = new ContainerPassFactory();
+    private static final PrimitiveTuplePassFactory primitiveTuplePassFactory = new PrimitiveTuplePassFactory();
     private static final Map<String, PassFactory> factories = Map(
         Pair(TypeAlias.class.getName(), aliasPassFactory),
         Pair(CaseClass.class.getName(), caseClassPassFactory),
         Pair(CaseObject.class.getName(), caseClassPassFactory),
+        Pair(CaseClassMatcher.class.getName(), caseClassMatcherPassFactory),
         Pair(MonadicFor.class.getName(), monadicForPassFactory),
         Pair(ImplicitClass.class.getName(), implicitPassFactory),
         Pair(ImplicitContext.class.getName(), implicitPassFactory),
-        Pair(TypeContainer.class.getName(), containerPassFactory)
+        Pair(TypeContainer.class.getName(), containerPassFactory),
+        Pair(PrimitiveTupleTemplate.class.getName(), primitiveTuplePassFactory)
     );
 
     @Override
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.processor.caseclass;
+
+import io.soabase.halva.processor.Environment;
+import io.soabase.halva.processor.Pass;
+import io.soabase.halva.processor.PassFactory;
+import io.soabase.halva.processor.WorkItem;
+import javax.lang.model.element.ElementKind;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The matchers themselves are generated along with the Case Classes (see {@link PassCreateMatchers}).
+ * This only validates the usage of the annotation.
+ */
+public class CaseClassMatcherPassFactory implements PassFactory
+{
+    @Override
+    public Optional<Pass> firstPass(Environment environment, List<WorkItem> workItems)
+    {
+        return Optional.of(() -> {
+            workItems.stream()
+                .filter(item -> item.getElement().getKind() != ElementKind.INTERFACE)
+                .forEach(item -> environment.error(item.getElement(), "@CaseClassMatcher can only be applied to interfaces"));
+            return Optional.empty();
+        });
+    }
+}
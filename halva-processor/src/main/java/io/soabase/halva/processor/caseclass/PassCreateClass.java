@@ -24,6 +24,7 @@ import io.soabase.halva.caseclass.CaseObject;
 import io.soabase.halva.processor.Environment;
 import io.soabase.halva.processor.Pass;
 import io.soabase.halva.tuple.ClassTuplable;
+import io.soabase.halva.tuple.IndexedTuplable;
 import io.soabase.halva.tuple.Tuplable;
 import javax.lang.model.element.Modifier;
 import java.io.Serializable;
@@ -48,7 +49,7 @@ class PassCreateClass implements Pass
     public Optional<Pass> process()
     {
         specs.forEach(this::processOneSpec);
-        return Optional.empty();
+        return Optional.of(new PassCreateMatchers(environment, specs));
     }
 
     private void processOneSpec(CaseClassSpec spec)
@@ -65,6 +66,7 @@ class PassCreateClass implements Pass
             .addSuperinterface(baseType)
             .addSuperinterface(Serializable.class)
             .addSuperinterface(Tuplable.class)
+            .addSuperinterface(IndexedTuplable.class)
             .addSuperinterface(ClassTuplable.class)
             .addModifiers(modifiers.toArray(new Modifier[modifiers.size()]));
 
@@ -92,6 +94,7 @@ class PassCreateClass implements Pass
         }
         templates.addEquals(spec, builder, qualifiedClassName);
         templates.addTuple(spec, builder);
+        templates.addIndexedTuple(spec, builder);
         templates.addHashCode(spec, builder);
         templates.addDebugString(spec, builder, qualifiedClassName);
         templates.addToString(spec, builder, qualifiedClassName);
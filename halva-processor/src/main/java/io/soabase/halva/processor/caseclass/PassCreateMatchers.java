@@ -0,0 +1,223 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.processor.caseclass;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import io.soabase.halva.caseclass.CaseClassMatcher;
+import io.soabase.halva.caseclass.CaseObject;
+import io.soabase.halva.matcher.MatchError;
+import io.soabase.halva.processor.Environment;
+import io.soabase.halva.processor.Pass;
+import io.soabase.halva.processor.container.Container;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+class PassCreateMatchers implements Pass
+{
+    private final Environment environment;
+    private final List<CaseClassSpec> specs;
+
+    PassCreateMatchers(Environment environment, List<CaseClassSpec> specs)
+    {
+        this.environment = environment;
+        this.specs = specs;
+    }
+
+    @Override
+    public Optional<Pass> process()
+    {
+        Map<TypeElement, List<CaseClassSpec>> specsByBase = new LinkedHashMap<>();
+        specs.forEach(spec -> {
+            Set<TypeElement> bases = new LinkedHashSet<>();
+            findMatcherBases(spec.getAnnotatedElement().asType(), bases);
+            bases.forEach(base -> {
+                // the matcher is generated from the case classes in the current round. Only those in the
+                // base's compilation unit are guaranteed to be there under incremental/separate compilation
+                if ( getCompilationUnitType(spec.getAnnotatedElement()) == getCompilationUnitType(base) )
+                {
+                    specsByBase.computeIfAbsent(base, b -> new ArrayList<>()).add(spec);
+                }
+                else
+                {
+                    environment.error(spec.getAnnotatedElement(), "Case Classes of a @CaseClassMatcher hierarchy must be declared in the same container/compilation unit as " + base.getQualifiedName());
+                }
+            });
+        });
+        specsByBase.forEach(this::processOneBase);
+        return Optional.empty();
+    }
+
+    private void findMatcherBases(TypeMirror type, Set<TypeElement> bases)
+    {
+        environment.getTypeUtils().directSupertypes(type).forEach(superType -> {
+            if ( superType instanceof DeclaredType )
+            {
+                Element element = ((DeclaredType)superType).asElement();
+                if ( (element.getKind() == ElementKind.INTERFACE) && (element.getAnnotation(CaseClassMatcher.class) != null) )
+                {
+                    bases.add((TypeElement)element);
+                }
+                findMatcherBases(superType, bases);
+            }
+        });
+    }
+
+    private static TypeElement getCompilationUnitType(Element element)
+    {
+        while ( element.getEnclosingElement().getKind() != ElementKind.PACKAGE )
+        {
+            element = element.getEnclosingElement();
+        }
+        return (TypeElement)element;
+    }
+
+    private void processOneBase(TypeElement base, List<CaseClassSpec> baseSpecs)
+    {
+        if ( base.getTypeParameters().size() > 0 )
+        {
+            environment.error(base, "@CaseClassMatcher cannot be used with generic interfaces");
+            return;
+        }
+        Optional<CaseClassSpec> genericSpec = baseSpecs.stream().filter(spec -> spec.getAnnotatedElement().getTypeParameters().size() > 0).findFirst();
+        if ( genericSpec.isPresent() )
+        {
+            environment.error(genericSpec.get().getAnnotatedElement(), "Generic Case Classes cannot be part of a @CaseClassMatcher hierarchy");
+            return;
+        }
+
+        String packageName = environment.getPackage(base);
+        ClassName templateQualifiedClassName = ClassName.get(packageName, base.getSimpleName().toString());
+        ClassName qualifiedClassName = getMatcherClassName(base, packageName);
+
+        environment.log("Generating " + CaseClassMatcher.class.getSimpleName() + " for " + templateQualifiedClassName + " as " + qualifiedClassName);
+
+        TypeName baseType = TypeName.get(base.asType());
+        TypeVariableName resultType = TypeVariableName.get("R");
+        Collection<Modifier> modifiers = environment.getModifiers(base);
+        TypeSpec.Builder builder = TypeSpec.interfaceBuilder(qualifiedClassName)
+            .addModifiers(modifiers.toArray(new Modifier[modifiers.size()]))
+            .addTypeVariable(resultType)
+            .addSuperinterface(ParameterizedTypeName.get(ClassName.get(Function.class), baseType, resultType))
+            .addJavadoc("Type-switch matcher for the Case Classes/Objects of {@link $T}. Implement a\n", baseType)
+            .addJavadoc("<code>caseXxx()</code> method for each of them - the fields of the matched value are passed directly.\n");
+
+        CodeBlock.Builder applyCode = CodeBlock.builder();
+        baseSpecs.sort(Comparator.comparing(spec -> spec.getAnnotatedElement().getQualifiedName().toString()));
+        baseSpecs.forEach(spec -> {
+            ClassName caseClassName = environment.getQualifiedClassName(spec.getAnnotatedElement(), spec.getAnnotationReader());
+            String methodName = getCaseMethodName(spec);
+            boolean isCaseObject = spec.getAnnotationReader().getName().equals(CaseObject.class.getSimpleName());
+            List<CaseClassItem> items = isCaseObject ? new ArrayList<>() : spec.getItems();
+
+            MethodSpec.Builder caseMethod = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(resultType);
+            items.forEach(item -> caseMethod.addParameter(TypeName.get(item.getType()), item.getName()));
+            builder.addMethod(caseMethod.build());
+
+            applyCode.beginControlFlow("if ( value instanceof $T )", caseClassName);
+            if ( items.isEmpty() )
+            {
+                applyCode.addStatement("return $L()", methodName);
+            }
+            else
+            {
+                String args = items.stream()
+                    .map(item -> "caseClass." + item.getName() + "()")
+                    .reduce((a, b) -> a + ", " + b)
+                    .orElse("");
+                applyCode.addStatement("$T caseClass = ($T)value", caseClassName, caseClassName);
+                applyCode.addStatement("return $L($L)", methodName, args);
+            }
+            applyCode.endControlFlow();
+        });
+        applyCode.addStatement("return caseDefault(value)");
+
+        MethodSpec caseDefault = MethodSpec.methodBuilder("caseDefault")
+            .addJavadoc("Called for values that are not one of the Case Classes/Objects (including null).\n")
+            .addJavadoc("The default implementation throws {@link $T}\n", MatchError.class)
+            .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+            .returns(resultType)
+            .addParameter(baseType, "value")
+            .addStatement("throw new $T($S + value)", MatchError.class, "No matches found and no default provided for: ")
+            .build();
+        builder.addMethod(caseDefault);
+
+        MethodSpec apply = MethodSpec.methodBuilder("apply")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+            .returns(resultType)
+            .addParameter(baseType, "value")
+            .addCode(applyCode.build())
+            .build();
+        builder.addMethod(apply);
+
+        environment.createSourceFile(packageName, templateQualifiedClassName, qualifiedClassName, CaseClassMatcher.class.getName(), builder, base);
+    }
+
+    private String getCaseMethodName(CaseClassSpec spec)
+    {
+        // based on the template name (not the generated name) so that members of a non-renaming container
+        // are named the same way as other case classes
+        String name = spec.getAnnotatedElement().getSimpleName().toString();
+        String unsuffix = spec.getAnnotationReader().getString("unsuffix");
+        if ( (unsuffix.length() > 0) && name.endsWith(unsuffix) )
+        {
+            name = name.substring(0, name.length() - unsuffix.length());
+        }
+        return "case" + name;
+    }
+
+    private ClassName getMatcherClassName(TypeElement base, String packageName)
+    {
+        CaseClassMatcher annotation = base.getAnnotation(CaseClassMatcher.class);
+        String name = base.getSimpleName().toString();
+        String unsuffix = annotation.unsuffix();
+        if ( (unsuffix.length() > 0) && name.endsWith(unsuffix) )
+        {
+            name = name.substring(0, name.length() - unsuffix.length());
+        }
+        name = name + annotation.suffix();
+
+        Optional<Container> container = environment.getContainerManager().getContainer(base);
+        if ( container.isPresent() )
+        {
+            String containerName = environment.getGeneratedClassName(container.get().getElement(), container.get().getAnnotationReader());
+            return ClassName.get(packageName, containerName, name);
+        }
+        return ClassName.get(packageName, name);
+    }
+}
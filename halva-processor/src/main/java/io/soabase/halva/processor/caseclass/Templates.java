@@ -19,12 +19,14 @@ import com.squareup.javapoet.*;
 import io.soabase.halva.processor.Constants;
 import io.soabase.halva.processor.Environment;
 import io.soabase.halva.tuple.ClassTuple;
+import io.soabase.halva.tuple.IndexedTuplable;
 import io.soabase.halva.tuple.Tuple;
 import io.soabase.halva.tuple.details.Tuple0;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -200,6 +202,87 @@ class Templates
         builder.addMethod(methodSpec);
     }
 
+    void addIndexedTuple(CaseClassSpec spec, TypeSpec.Builder builder)
+    {
+        List<CaseClassItem> items = spec.getItems();
+
+        builder.addMethod(MethodSpec.methodBuilder("tupleSize")
+            .returns(TypeName.INT)
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("return $L", items.size())
+            .build());
+
+        MethodSpec.Builder itemBuilder = MethodSpec.methodBuilder("tupleItem")
+            .returns(Object.class)
+            .addParameter(TypeName.INT, "index")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC);
+        if ( items.size() > 0 )
+        {
+            itemBuilder.beginControlFlow("switch ( index )");
+            for ( int i = 0; i < items.size(); ++i )
+            {
+                itemBuilder.addStatement("case $L: return $L()", i, items.get(i).getName());
+            }
+            itemBuilder.endControlFlow();
+        }
+        itemBuilder.addStatement("throw new $T(\"index: \" + index)", IndexOutOfBoundsException.class);
+        builder.addMethod(itemBuilder.build());
+
+        MethodSpec.Builder primitiveTypeBuilder = MethodSpec.methodBuilder("tuplePrimitiveType")
+            .returns(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)))
+            .addParameter(TypeName.INT, "index")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC);
+        boolean hasPrimitives = items.stream().anyMatch(item -> item.getType().getKind().isPrimitive());
+        if ( hasPrimitives )
+        {
+            primitiveTypeBuilder.beginControlFlow("switch ( index )");
+            for ( int i = 0; i < items.size(); ++i )
+            {
+                TypeMirror type = items.get(i).getType();
+                if ( type.getKind().isPrimitive() )
+                {
+                    primitiveTypeBuilder.addStatement("case $L: return $T.class", i, TypeName.get(type));
+                }
+            }
+            primitiveTypeBuilder.endControlFlow();
+        }
+        primitiveTypeBuilder.addStatement("return null");
+        builder.addMethod(primitiveTypeBuilder.build());
+
+        addPrimitiveTupleItem(items, builder, TypeKind.INT, "tupleInt");
+        addPrimitiveTupleItem(items, builder, TypeKind.LONG, "tupleLong");
+        addPrimitiveTupleItem(items, builder, TypeKind.DOUBLE, "tupleDouble");
+    }
+
+    private void addPrimitiveTupleItem(List<CaseClassItem> items, TypeSpec.Builder builder, TypeKind kind, String methodName)
+    {
+        if ( items.stream().noneMatch(item -> item.getType().getKind() == kind) )
+        {
+            return; // the default method (which unboxes) is never called for these
+        }
+
+        TypeName typeName = TypeName.get(items.stream().filter(item -> item.getType().getKind() == kind).findFirst().get().getType());
+        MethodSpec.Builder methodBuilder = MethodSpec.methodBuilder(methodName)
+            .returns(typeName)
+            .addParameter(TypeName.INT, "index")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC);
+        methodBuilder.beginControlFlow("switch ( index )");
+        for ( int i = 0; i < items.size(); ++i )
+        {
+            if ( items.get(i).getType().getKind() == kind )
+            {
+                methodBuilder.addStatement("case $L: return $L()", i, items.get(i).getName());
+            }
+        }
+        methodBuilder.endControlFlow();
+        methodBuilder.addStatement("return $T.super.$L(index)", IndexedTuplable.class, methodName);
+        builder.addMethod(methodBuilder.build());
+    }
+
     void addHashCode(CaseClassSpec spec, TypeSpec.Builder builder)
     {
         MethodSpec.Builder hashCodeBuilder = MethodSpec
@@ -431,8 +514,10 @@ class Templates
         String arguments = IntStream.rangeClosed(1, spec.getItems().size())
             .mapToObj(i -> "_" + i)
             .collect(Collectors.joining(", "));
+        // the pattern's tuple is built once - not each time the pattern is extracted
         CodeBlock codeBlock = CodeBlock.builder()
-            .addStatement("return () -> $T.$L($L)", tupleClassName, Constants.TUPLE_METHOD, arguments)
+            .addStatement("$T tuple = $T.$L($L)", tupleClassName, tupleClassName, Constants.TUPLE_METHOD, arguments)
+            .addStatement("return () -> tuple")
             .build();
 
         List<ParameterSpec> parameters = IntStream.rangeClosed(1, spec.getItems().size())
@@ -0,0 +1,287 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.processor.tuple;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import io.soabase.halva.processor.Environment;
+import io.soabase.halva.processor.Pass;
+import io.soabase.halva.processor.WorkItem;
+import io.soabase.halva.tuple.PrimitiveTuple;
+import io.soabase.halva.tuple.details.PrimitiveTupleTemplate;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class PassCreate implements Pass
+{
+    private static final String DETAILS_PACKAGE = "io.soabase.halva.tuple.details";
+    private static final String UNSUFFIX = "_";
+
+    private final Environment environment;
+    private final List<WorkItem> workItems;
+
+    PassCreate(Environment environment, List<WorkItem> workItems)
+    {
+        this.environment = environment;
+        this.workItems = workItems;
+    }
+
+    @Override
+    public Optional<Pass> process()
+    {
+        // swap() is only generated when the tuple with the swapped item types is generated as well
+        Set<String> tupleNames = workItems.stream()
+            .map(item -> tupleName((TypeElement)item.getElement()))
+            .collect(Collectors.toSet());
+        workItems.forEach(item -> buildFromTemplate((TypeElement)item.getElement(), tupleNames));   // by definition - annotation is only for Type
+        return Optional.empty();
+    }
+
+    private void buildFromTemplate(TypeElement template, Set<String> tupleNames)
+    {
+        String packageName = environment.getPackage(template);
+        if ( !packageName.equals(DETAILS_PACKAGE) )
+        {
+            environment.error(template, "Primitive tuple templates must be in " + DETAILS_PACKAGE);
+            return;
+        }
+        if ( (template.getKind() != ElementKind.INTERFACE) || !template.getSimpleName().toString().endsWith(UNSUFFIX) )
+        {
+            environment.error(template, "Primitive tuple templates must be interfaces whose names end with " + UNSUFFIX);
+            return;
+        }
+
+        List<TypeMirror> types = itemTypes(template);
+        if ( types.isEmpty() )
+        {
+            return;
+        }
+        String name = tupleName(template);
+        String expectedName = types.stream().map(PassCreate::typeName).collect(Collectors.joining()) + "Tuple";
+        if ( !name.equals(expectedName) )
+        {
+            environment.error(template, "The template for these item types must be named " + expectedName + UNSUFFIX);
+            return;
+        }
+
+        ClassName templateQualifiedClassName = ClassName.get(packageName, template.getSimpleName().toString());
+        ClassName generatedQualifiedClassName = ClassName.get(packageName, name);
+        environment.log("Generating " + PrimitiveTupleTemplate.class.getSimpleName() + " for " + templateQualifiedClassName + " as " + generatedQualifiedClassName);
+
+        TypeSpec.Builder builder = TypeSpec.classBuilder(generatedQualifiedClassName)
+            .addModifiers(Modifier.PUBLIC)
+            .superclass(ClassName.get(DETAILS_PACKAGE, "TupleImpl"))
+            .addSuperinterface(PrimitiveTuple.class);
+        environment.addTypeVariableNames(builder::addTypeVariables, template.getTypeParameters());
+
+        addFieldsAndConstructor(builder, types);
+        addGet(builder, types);
+        addPrimitiveType(builder, types);
+        addPrimitiveGetter(builder, types, TypeKind.INT, "tupleInt");
+        addPrimitiveGetter(builder, types, TypeKind.LONG, "tupleLong");
+        addPrimitiveGetter(builder, types, TypeKind.DOUBLE, "tupleDouble");
+        addSwap(builder, types, tupleNames);
+
+        environment.createSourceFile(packageName, templateQualifiedClassName, generatedQualifiedClassName, PrimitiveTupleTemplate.class.getName(), builder, template);
+    }
+
+    private List<TypeMirror> itemTypes(TypeElement template)
+    {
+        List<TypeMirror> types = new ArrayList<>();
+        for ( ExecutableElement method : template.getEnclosedElements().stream().filter(e -> e.getKind() == ElementKind.METHOD).map(e -> (ExecutableElement)e).collect(Collectors.toList()) )
+        {
+            String expectedName = "_" + (types.size() + 1);
+            if ( !method.getSimpleName().toString().equals(expectedName) || !method.getParameters().isEmpty() )
+            {
+                environment.error(method, "Expected item method " + expectedName + "()");
+                return new ArrayList<>();
+            }
+            if ( typeName(method.getReturnType()) == null )
+            {
+                environment.error(method, "Items must be int, long, double or a type variable");
+                return new ArrayList<>();
+            }
+            types.add(method.getReturnType());
+        }
+        if ( types.size() < 2 )
+        {
+            environment.error(template, "Primitive tuples must have at least 2 items");
+            return new ArrayList<>();
+        }
+        return types;
+    }
+
+    private void addFieldsAndConstructor(TypeSpec.Builder builder, List<TypeMirror> types)
+    {
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC);
+        for ( int i = 0; i < types.size(); ++i )
+        {
+            String field = field(i);
+            TypeName type = TypeName.get(types.get(i));
+            builder.addField(type, field, Modifier.PUBLIC, Modifier.FINAL);
+            constructor.addParameter(type, field);
+            constructor.addStatement("this.$L = $L", field, field);
+        }
+        builder.addMethod(constructor.build());
+    }
+
+    private void addGet(TypeSpec.Builder builder, List<TypeMirror> types)
+    {
+        MethodSpec.Builder get = MethodSpec.methodBuilder("get")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(Object.class)
+            .addParameter(int.class, "index")
+            .beginControlFlow("switch ( index )");
+        for ( int i = 0; i < types.size(); ++i )
+        {
+            get.addStatement("case $L: return $L", i, field(i));
+        }
+        get.endControlFlow()
+            .addStatement("throw new $T($S + index + $S)", IndexOutOfBoundsException.class, "Index: ", ", Size: " + types.size());
+        builder.addMethod(get.build());
+
+        MethodSpec size = MethodSpec.methodBuilder("size")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(int.class)
+            .addStatement("return $L", types.size())
+            .build();
+        builder.addMethod(size);
+    }
+
+    private void addPrimitiveType(TypeSpec.Builder builder, List<TypeMirror> types)
+    {
+        MethodSpec.Builder primitiveType = MethodSpec.methodBuilder("tuplePrimitiveType")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(ParameterizedTypeName.get(ClassName.get(Class.class), TypeVariableName.get("?")))
+            .addParameter(int.class, "index")
+            .beginControlFlow("switch ( index )");
+        for ( int i = 0; i < types.size(); ++i )
+        {
+            TypeMirror type = types.get(i);
+            if ( type.getKind().isPrimitive() )
+            {
+                primitiveType.addStatement("case $L: return $T.TYPE", i, TypeName.get(type).box());
+            }
+        }
+        primitiveType.endControlFlow()
+            .addStatement("return null");
+        builder.addMethod(primitiveType.build());
+    }
+
+    private void addPrimitiveGetter(TypeSpec.Builder builder, List<TypeMirror> types, TypeKind kind, String methodName)
+    {
+        if ( types.stream().noneMatch(type -> type.getKind() == kind) )
+        {
+            return;
+        }
+
+        TypeName type = null;
+        MethodSpec.Builder getter = MethodSpec.methodBuilder(methodName)
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(int.class, "index")
+            .beginControlFlow("switch ( index )");
+        for ( int i = 0; i < types.size(); ++i )
+        {
+            if ( types.get(i).getKind() == kind )
+            {
+                type = TypeName.get(types.get(i));
+                getter.addStatement("case $L: return $L", i, field(i));
+            }
+        }
+        getter.endControlFlow()
+            .addStatement("return $T.super.$L(index)", PrimitiveTuple.class, methodName)
+            .returns(type);
+        builder.addMethod(getter.build());
+    }
+
+    private void addSwap(TypeSpec.Builder builder, List<TypeMirror> types, Set<String> tupleNames)
+    {
+        if ( types.size() != 2 )
+        {
+            return;
+        }
+        String swappedName = typeName(types.get(1)) + typeName(types.get(0)) + "Tuple";
+        if ( !tupleNames.contains(swappedName) )
+        {
+            return;
+        }
+
+        ClassName swappedClassName = ClassName.get(DETAILS_PACKAGE, swappedName);
+        List<TypeName> typeArguments = new ArrayList<>();
+        for ( int i = types.size() - 1; i >= 0; --i )
+        {
+            if ( types.get(i).getKind() == TypeKind.TYPEVAR )
+            {
+                typeArguments.add(TypeName.get(types.get(i)));
+            }
+        }
+        TypeName returnType = typeArguments.isEmpty() ? swappedClassName : ParameterizedTypeName.get(swappedClassName, typeArguments.toArray(new TypeName[typeArguments.size()]));
+        MethodSpec swap = MethodSpec.methodBuilder("swap")
+            .addModifiers(Modifier.PUBLIC)
+            .returns(returnType)
+            .addStatement(typeArguments.isEmpty() ? "return new $T(_2, _1)" : "return new $T<>(_2, _1)", swappedClassName)
+            .build();
+        builder.addMethod(swap);
+    }
+
+    private static String tupleName(TypeElement template)
+    {
+        String name = template.getSimpleName().toString();
+        return name.endsWith(UNSUFFIX) ? name.substring(0, name.length() - UNSUFFIX.length()) : name;
+    }
+
+    private static String typeName(TypeMirror type)
+    {
+        switch ( type.getKind() )
+        {
+            case INT:
+                return "Int";
+
+            case LONG:
+                return "Long";
+
+            case DOUBLE:
+                return "Double";
+
+            case TYPEVAR:
+                return "Obj";
+        }
+        return null;
+    }
+
+    private static String field(int index)
+    {
+        return "_" + (index + 1);
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread - for tests of allocation free code paths
+ */
+public final class Allocations
+{
+    // allowance for incidental allocations of the JVM/test framework
+    private static final long MAX_INCIDENTAL_BYTES = 1024;
+
+    /**
+     * Run the proc twice (the first run warms up) and return the bytes allocated by the
+     * current thread during the second run. The calling test is skipped if the JVM can't
+     * measure allocations.
+     *
+     * @param proc code to measure
+     * @return allocated bytes
+     */
+    public static long measure(Runnable proc)
+    {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        proc.run();  // warm up
+        long threadId = Thread.currentThread().getId();
+        long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+        proc.run();
+        return threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+    }
+
+    /**
+     * Same as {@link #measure(Runnable)} but asserts that the proc doesn't allocate
+     *
+     * @param proc code to measure
+     */
+    public static void assertDoesNotAllocate(Runnable proc)
+    {
+        long allocatedBytes = measure(proc);
+        Assert.assertTrue("Allocated bytes: " + allocatedBytes, allocatedBytes < MAX_INCIDENTAL_BYTES);
+    }
+
+    private Allocations()
+    {
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.any;
+
+import io.soabase.halva.sugar.ConsList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static io.soabase.halva.matcher.Matcher.exactly;
+import static io.soabase.halva.matcher.Matcher.match;
+import static io.soabase.halva.matcher.Matcher.prefix;
+import static io.soabase.halva.matcher.Matcher.suffix;
+import static io.soabase.halva.sugar.Sugar.List;
+
+public class TestAnyListPattern
+{
+    @Test
+    public void testPrefix()
+    {
+        Any<Integer> second = new AnyType<Integer>(){};
+        Any<ConsList<Integer>> rest = new AnyType<ConsList<Integer>>(){};
+
+        String s = match(List(1, 2, 3, 4))
+            .caseOf(prefix(1, second, 5), () -> "no")
+            .caseOf(prefix(1, second).rest(rest), () -> second.val() + " " + rest.val())
+            .get();
+        Assert.assertEquals("2 [3, 4]", s);
+
+        Assert.assertTrue(prefix(1, 2).canSet(List(1, 2)));
+        Assert.assertFalse(prefix(1, 2).canSet(List(1)));
+        Assert.assertFalse(prefix(1, 2).canSet("not a list"));
+    }
+
+    @Test
+    public void testSuffix()
+    {
+        Any<String> last = new AnyType<String>(){};
+        Any<ConsList<String>> init = new AnyType<ConsList<String>>(){};
+
+        String s = match(List("a", "b", "c"))
+            .caseOf(suffix("b", last).rest(init), () -> init.val() + " " + last.val())
+            .get();
+        Assert.assertEquals("[a] c", s);
+    }
+
+    @Test
+    public void testExactly()
+    {
+        Any<Integer> a = new AnyType<Integer>(){};
+        Any<Integer> b = new AnyType<Integer>(){};
+
+        String s = match(List(1, 2, 3))
+            .caseOf(exactly(a, b), () -> "two")
+            .caseOf(exactly(a, b, 3), () -> "three " + a.val() + b.val())
+            .get();
+        Assert.assertEquals("three 12", s);
+        Assert.assertTrue(exactly().canSet(List()));
+    }
+
+    @Test
+    public void testRestThatInspectsElements()
+    {
+        // rest holders other than AnyType/etc. are tested against the actual remaining elements
+        Any<ConsList<Integer>> shortRest = new AnyVal<ConsList<Integer>>()
+        {
+            @Override
+            public boolean canSet(ConsList<Integer> value)
+            {
+                return value.size() < 3;
+            }
+        };
+        String s = match(List(1, 2, 3, 4))
+            .caseOf(prefix(1).rest(shortRest), () -> "no")
+            .caseOf(prefix(1, 2).rest(shortRest), () -> "short rest " + shortRest.val())
+            .get();
+        Assert.assertEquals("short rest [3, 4]", s);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExactlyHasNoRest()
+    {
+        exactly(1).rest(new AnyType<ConsList<Integer>>(){});
+    }
+
+    @Test
+    public void testSlice()
+    {
+        ConsList<Integer> list = List(1, 2, 3, 4, 5);
+        Assert.assertEquals(List(2, 3), list.slice(1, 3));
+        Assert.assertEquals(List(), list.slice(5, 5));
+    }
+}
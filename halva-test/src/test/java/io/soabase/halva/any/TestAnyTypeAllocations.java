@@ -0,0 +1,60 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.any;
+
+import io.soabase.halva.Allocations;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.List;
+import java.util.Map;
+
+public class TestAnyTypeAllocations
+{
+    private static final int ITERATIONS = 100000;
+
+    // an AnyType is a few fields - anything more means the type is being resolved again
+    private static final int MAX_BYTES_PER_INSTANCE = 64;
+
+    @Test
+    public void testRawTypeIsResolvedOnce()
+    {
+        long allocatedBytes = Allocations.measure(() -> Assert.assertEquals(ITERATIONS, run()));
+
+        long bytesPerInstance = allocatedBytes / ITERATIONS;
+        Assert.assertTrue("Bytes per instance: " + bytesPerInstance, bytesPerInstance <= MAX_BYTES_PER_INSTANCE);
+    }
+
+    @Test
+    public void testRawType()
+    {
+        Assert.assertEquals(Map.class, new AnyType<Map<String, List<Integer>>>(){}.getRawType());
+        Assert.assertEquals(String.class, new AnyType<String>(){}.getRawType());
+    }
+
+    private int run()
+    {
+        int count = 0;
+        for ( int i = 0; i < ITERATIONS; ++i )
+        {
+            AnyType<Map<String, List<Integer>>> any = new AnyType<Map<String, List<Integer>>>(){};
+            if ( any.getRawType() == Map.class )
+            {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
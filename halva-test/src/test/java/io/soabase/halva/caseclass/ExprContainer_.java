@@ -0,0 +1,27 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.caseclass;
+
+import io.soabase.halva.container.TypeContainer;
+
+@TypeContainer
+public interface ExprContainer_
+{
+    @CaseClassMatcher interface Expr{}
+    @CaseClass interface Lit_ extends Expr{int n();}
+    @CaseClass interface Plus_ extends Expr{Expr left(); Expr right();}
+    @CaseClass interface Minus_ extends Expr{Expr left(); Expr right();}
+}
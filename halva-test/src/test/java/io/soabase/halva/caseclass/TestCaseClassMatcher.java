@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.caseclass;
+
+import io.soabase.halva.matcher.MatchError;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static io.soabase.halva.caseclass.Add.Add;
+import static io.soabase.halva.caseclass.Con.Con;
+import static io.soabase.halva.caseclass.Neg.Neg;
+import static io.soabase.halva.caseclass.Zero.Zero;
+
+public class TestCaseClassMatcher
+{
+    @CaseClassMatcher interface Term{}
+    @CaseClass interface Con_ extends Term{int n();}
+    @CaseClass interface Add_ extends Term{Term left(); Term right();}
+    @CaseClass interface Neg_ extends Term{Term term();}
+    @CaseObject interface Zero_ extends Term{}
+
+    private static final TermMatcher<Integer> eval = new TermMatcher<Integer>()
+    {
+        @Override
+        public Integer caseAdd(Term left, Term right)
+        {
+            return apply(left) + apply(right);
+        }
+
+        @Override
+        public Integer caseCon(int n)
+        {
+            return n;
+        }
+
+        @Override
+        public Integer caseNeg(Term term)
+        {
+            return -apply(term);
+        }
+
+        @Override
+        public Integer caseZero()
+        {
+            return 0;
+        }
+    };
+
+    @Test
+    public void testDispatch()
+    {
+        Assert.assertEquals(Integer.valueOf(3), eval.apply(Con(3)));
+        Assert.assertEquals(Integer.valueOf(0), eval.apply(Zero));
+        Assert.assertEquals(Integer.valueOf(-4), eval.apply(Add(Neg(Con(7)), Add(Con(3), Zero))));
+    }
+
+    @Test
+    public void testDefault()
+    {
+        Term other = new Term(){};
+        try
+        {
+            eval.apply(other);
+            Assert.fail();
+        }
+        catch ( MatchError ignore )
+        {
+            // correct
+        }
+
+        TermMatcher<String> describe = new TermMatcher<String>()
+        {
+            @Override
+            public String caseAdd(Term left, Term right)
+            {
+                return "add";
+            }
+
+            @Override
+            public String caseCon(int n)
+            {
+                return "con " + n;
+            }
+
+            @Override
+            public String caseNeg(Term term)
+            {
+                return "neg";
+            }
+
+            @Override
+            public String caseZero()
+            {
+                return "zero";
+            }
+
+            @Override
+            public String caseDefault(Term value)
+            {
+                return "other";
+            }
+        };
+        Assert.assertEquals("con 1", describe.apply(Con(1)));
+        Assert.assertEquals("other", describe.apply(other));
+        Assert.assertEquals("other", describe.apply(null));
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.caseclass;
+
+import io.soabase.halva.processor.MasterProcessor;
+import org.junit.Assert;
+import org.junit.Test;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TestCaseClassMatcherErrors
+{
+    @Test
+    public void testCaseClassOutsideOfCompilationUnit() throws IOException
+    {
+        List<JavaFileObject> sources = Arrays.asList(
+            source("test.Shapes", "package test; import io.soabase.halva.caseclass.*; public interface Shapes { @CaseClassMatcher interface Shape{} @CaseClass interface Circle_ extends Shape{double radius();} }"),
+            source("test.Square_", "package test; import io.soabase.halva.caseclass.*; @CaseClass public interface Square_ extends Shapes.Shape{double side();}")
+        );
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Assert.assertFalse(compile(sources, diagnostics));
+        boolean found = diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .anyMatch(diagnostic -> diagnostic.getMessage(null).contains("must be declared in the same container/compilation unit as test.Shapes.Shape"));
+        Assert.assertTrue(diagnostics.getDiagnostics().toString(), found);
+    }
+
+    private static boolean compile(List<JavaFileObject> sources, DiagnosticCollector<JavaFileObject> diagnostics) throws IOException
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File outputDirectory = Files.createTempDirectory("halva").toFile();
+        try ( StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null) )
+        {
+            // surefire may run the tests via a manifest-only jar
+            String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+            List<String> options = Arrays.asList("-classpath", classPath, "-d", outputDirectory.getPath(), "-s", outputDirectory.getPath());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, sources);
+            task.setProcessors(Collections.singletonList(new MasterProcessor()));
+            return task.call();
+        }
+    }
+
+    private static JavaFileObject source(String className, String code)
+    {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors)
+            {
+                return code;
+            }
+        };
+    }
+}
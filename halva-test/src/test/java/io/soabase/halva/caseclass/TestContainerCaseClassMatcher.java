@@ -0,0 +1,56 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.caseclass;
+
+import io.soabase.halva.caseclass.ExprContainer.ExprMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static io.soabase.halva.caseclass.ExprContainer.Lit_.Lit_;
+import static io.soabase.halva.caseclass.ExprContainer.Plus_.Plus_;
+import static io.soabase.halva.caseclass.ExprContainer.Minus_.Minus_;
+
+public class TestContainerCaseClassMatcher
+{
+    private static final ExprMatcher<Integer> eval = new ExprMatcher<Integer>()
+    {
+        @Override
+        public Integer caseLit(int n)
+        {
+            return n;
+        }
+
+        @Override
+        public Integer casePlus(ExprContainer_.Expr left, ExprContainer_.Expr right)
+        {
+            return apply(left) + apply(right);
+        }
+
+        @Override
+        public Integer caseMinus(ExprContainer_.Expr left, ExprContainer_.Expr right)
+        {
+            return apply(left) - apply(right);
+        }
+    };
+
+    @Test
+    public void testContainerMembers()
+    {
+        Assert.assertEquals(Integer.valueOf(4), eval.apply(Lit_(4)));
+        Assert.assertEquals(Integer.valueOf(7), eval.apply(Plus_(Lit_(3), Lit_(4))));
+        Assert.assertEquals(Integer.valueOf(-1), eval.apply(Minus_(Lit_(3), Plus_(Lit_(2), Lit_(2)))));
+    }
+}
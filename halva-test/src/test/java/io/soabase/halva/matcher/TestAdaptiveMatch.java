@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.caseclass.CaseClass;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.soabase.halva.matcher.Circle.Circle;
+import static io.soabase.halva.matcher.Circle.CircleTu;
+import static io.soabase.halva.matcher.Line.Line;
+import static io.soabase.halva.matcher.Line.LineTu;
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.matcher.Square.Square;
+import static io.soabase.halva.matcher.Square.SquareTu;
+import static io.soabase.halva.tuple.Tuple.Tu;
+
+public class TestAdaptiveMatch
+{
+    interface Figure{}
+    @CaseClass interface Circle_ extends Figure{int radius();}
+    @CaseClass interface Square_ extends Figure{int side();}
+    @CaseClass interface Line_ extends Figure{int length();}
+
+    private final Any<Integer> size = new AnyType<Integer>(){};
+    private final Any<Object> any = new AnyType<Object>(){};
+
+    private PartialImpl<Object> newPartial()
+    {
+        return (PartialImpl<Object>)partial(Object.class)
+            .caseOf(CircleTu(size), () -> "circle")
+            .caseOf(SquareTu(size), () -> "square")
+            .caseOf(LineTu(size), () -> "line")
+            .caseOf(any, () -> any.val().equals(0), () -> "zero")
+            .caseOf("a", () -> "a")
+            .caseOf("b", () -> "b")
+            .caseOf("a", () -> "second a")
+            .caseOf("c", () -> "c")
+            .caseOf(() -> "default");
+    }
+
+    @Test
+    public void testReorder()
+    {
+        PartialImpl<Object> partial = newPartial();
+        AdaptiveCaseTable<Object> table = (AdaptiveCaseTable<Object>)partial.table().withOptions(EnumSet.of(CompileOption.ADAPTIVE));
+        List<String> declared = patterns(table.currentOrder());
+
+        for ( int i = 0; i < 10; ++i )
+        {
+            Assert.assertEquals("line", table.evaluate(Line(1)));
+            Assert.assertEquals("b", table.evaluate("b"));
+            Assert.assertEquals("c", table.evaluate("c"));
+        }
+        Assert.assertEquals("square", table.evaluate(Square(1)));
+        table.reorder();
+
+        List<String> reordered = patterns(table.currentOrder());
+        Assert.assertNotEquals(declared, reordered);
+        // the case classes are reordered among themselves
+        Assert.assertEquals(declared.get(2), reordered.get(0));
+        Assert.assertEquals(declared.get(1), reordered.get(1));
+        Assert.assertEquals(declared.get(0), reordered.get(2));
+        // the guarded case is not moved
+        Assert.assertEquals(declared.get(3), reordered.get(3));
+        // "a" and "b" are reordered but not past the duplicate "a"
+        Assert.assertEquals("(\"b\")", reordered.get(4));
+        Assert.assertEquals("(\"a\")", reordered.get(5));
+        Assert.assertEquals("(\"c\")", reordered.get(6));
+        Assert.assertEquals("(\"a\")", reordered.get(7));
+
+        Assert.assertEquals("a", table.evaluate("a"));
+        Assert.assertEquals("zero", table.evaluate(0));
+        Assert.assertEquals("circle", table.evaluate(Circle(1)));
+        Assert.assertEquals("default", table.evaluate("d"));
+    }
+
+    @Test
+    public void testTuplesKeepDeclaredOrder()
+    {
+        // a tuple value is compared structurally to case class patterns - the first declared case must win
+        CompiledMatch<Object, String> compiled = compile(newPartial(), CompileOption.ADAPTIVE);
+        for ( int i = 0; i < AdaptiveCaseTable.REORDER_INTERVAL + 1; ++i )
+        {
+            Assert.assertEquals("line", compiled.apply(Line(i)));
+        }
+        Assert.assertEquals("circle", compiled.apply(Tu(Tu(1))));
+        Assert.assertEquals("line", compiled.apply(Line(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotWithDecisionTree()
+    {
+        compile(newPartial(), CompileOption.ADAPTIVE, CompileOption.DECISION_TREE);
+    }
+
+    private static List<String> patterns(List<Getter.Entry<Object>> entries)
+    {
+        return entries.stream().map(entry -> entry.extracter.getValues().toString()).collect(Collectors.toList());
+    }
+}
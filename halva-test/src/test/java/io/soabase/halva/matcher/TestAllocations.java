@@ -0,0 +1,93 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.Allocations;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.partial;
+
+public class TestAllocations
+{
+    private static final int ITERATIONS = 100000;
+
+    private static final Any<String> str = new AnyType<String>(){};
+    private static final CompiledMatch<Object, String> commands = compile(partial(Object.class)
+        .caseOf("get", () -> "GET")
+        .caseOf("put", () -> "PUT")
+        .caseOf(10, () -> "ten")
+        .caseOf(str, () -> str.val().isEmpty(), () -> "empty")
+        .caseOf(str, () -> "string")
+        .caseOf(() -> "other")
+    );
+
+    @Test
+    public void testHitPathDoesNotAllocate()
+    {
+        Object[] values = {"get", "put", 10, "", "something"};
+        Allocations.assertDoesNotAllocate(() -> Assert.assertEquals(ITERATIONS * values.length, run(values)));
+    }
+
+    private static final Any<Integer> anInt = new AnyType<Integer>(){};
+    private static final Any<Long> aLong = new AnyType<Long>(){};
+    private static final Any<Double> aDouble = new AnyType<Double>(){};
+    private static final CompiledMatch<Object, String> types = compile(partial(Object.class)
+        .caseOf(anInt, () -> "int")
+        .caseOf(aLong, () -> "long")
+        .caseOf(aDouble, () -> "double")
+        .caseOf(str, () -> "string")
+    );
+
+    @Test
+    public void testFailedTypeCasesDoNotAllocate()
+    {
+        Allocations.assertDoesNotAllocate(() -> Assert.assertEquals(ITERATIONS, runTypes()));
+    }
+
+    private int runTypes()
+    {
+        // each match fails the int, long and double cases before matching the string case
+        int count = 0;
+        for ( int i = 0; i < ITERATIONS; ++i )
+        {
+            if ( types.apply("value").equals("string") )
+            {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    private int run(Object[] values)
+    {
+        int count = 0;
+        for ( int i = 0; i < ITERATIONS; ++i )
+        {
+            for ( Object value : values )
+            {
+                if ( commands.apply(value) != null )
+                {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.partial;
+
+public class TestAsyncMatch
+{
+    private static final Any<Integer> code = new AnyType<Integer>(){};
+    private static final Partial<Integer> status = partial(Integer.class)
+        .caseOf(200, () -> "ok")
+        .caseOf(code, () -> code.val() >= 500, () -> "error " + code.val());
+
+    @Test
+    public void testCompletingThread() throws Exception
+    {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        AtomicReference<Thread> evaluatingThread = new AtomicReference<>();
+        CompletionStage<String> result = status.<String>matchAsync(future).whenComplete((s, e) -> evaluatingThread.set(Thread.currentThread()));
+        Assert.assertFalse(result.toCompletableFuture().isDone());
+
+        Thread completer = new Thread(() -> future.complete(503));
+        completer.start();
+        completer.join();
+
+        Assert.assertEquals("error 503", result.toCompletableFuture().get(1, TimeUnit.SECONDS));
+        Assert.assertSame(completer, evaluatingThread.get());
+    }
+
+    @Test
+    public void testExecutor() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            CompletionStage<String> result = status.matchAsync(CompletableFuture.completedFuture(200), executor);
+            Assert.assertEquals("ok", result.toCompletableFuture().get(1, TimeUnit.SECONDS));
+
+            CompiledMatch<Integer, String> compiled = compile(status);
+            Assert.assertEquals("error 500", compiled.applyAsync(CompletableFuture.completedFuture(500), executor).toCompletableFuture().get(1, TimeUnit.SECONDS));
+            Assert.assertEquals("ok", compiled.applyAsync(CompletableFuture.completedFuture(200)).toCompletableFuture().get(1, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoMatch() throws Exception
+    {
+        CompletionStage<String> result = status.matchAsync(CompletableFuture.completedFuture(404));
+        try
+        {
+            result.toCompletableFuture().get(1, TimeUnit.SECONDS);
+            Assert.fail("should have thrown");
+        }
+        catch ( ExecutionException e )
+        {
+            Assert.assertTrue(e.getCause() instanceof MatchError);
+        }
+    }
+
+    @Test
+    public void testUnitCases() throws Exception
+    {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        Partial<Integer> log = partial(Integer.class)
+            .caseOfUnit(200, () -> seen.add("ok"))
+            .caseOfUnit(code, () -> seen.add("code " + code.val()));
+        CompiledMatch<Integer, Void> compiled = compile(log);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            log.matchAsyncUnit(CompletableFuture.completedFuture(200)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+            log.matchAsyncUnit(CompletableFuture.completedFuture(404), executor).toCompletableFuture().get(1, TimeUnit.SECONDS);
+            compiled.applyAsyncUnit(CompletableFuture.completedFuture(201)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+            compiled.applyAsyncUnit(CompletableFuture.completedFuture(200), executor).toCompletableFuture().get(1, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(Arrays.asList("ok", "code 404", "code 201", "ok"), seen);
+
+        // like get(), the result returning variants treat a null result as no match
+        assertMatchError(log.matchAsync(CompletableFuture.completedFuture(200)));
+        assertMatchError(compiled.applyAsync(CompletableFuture.completedFuture(200)));
+        assertMatchError(partial(Integer.class).caseOfUnit(1, () -> {}).matchAsyncUnit(CompletableFuture.completedFuture(2)));
+    }
+
+    private static void assertMatchError(CompletionStage<?> stage) throws Exception
+    {
+        try
+        {
+            stage.toCompletableFuture().get(1, TimeUnit.SECONDS);
+            Assert.fail("should have thrown");
+        }
+        catch ( ExecutionException e )
+        {
+            Assert.assertTrue(e.getCause() instanceof MatchError);
+        }
+    }
+}
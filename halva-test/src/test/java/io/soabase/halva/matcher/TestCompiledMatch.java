@@ -0,0 +1,207 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.caseclass.CaseClass;
+import io.soabase.halva.tuple.ClassTuple;
+import io.soabase.halva.tuple.Tuplable;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.matcher.Shape.Shape;
+import static io.soabase.halva.matcher.Shape.ShapeTu;
+import static io.soabase.halva.matcher.Box.Box;
+import static io.soabase.halva.matcher.Box.BoxTu;
+import static io.soabase.halva.tuple.Tuple.Tu;
+
+public class TestCompiledMatch
+{
+    interface Item{}
+    @CaseClass interface Shape_ extends Item{String name(); int sides();}
+    @CaseClass interface Box_ extends Item{Item contents();}
+
+    private static final Any<String> name = new AnyType<String>(){};
+    private static final Any<Integer> sides = new AnyType<Integer>(){};
+    private static final Any<Item> contents = new AnyType<Item>(){};
+
+    private static final CompiledMatch<Item, String> describe = compile(partial(Item.class)
+        .caseOf(ShapeTu("triangle", sides), () -> "a triangle")
+        .caseOf(ShapeTu(name, 4), () -> "a square " + name.val())
+        .caseOf(ShapeTu(name, sides), () -> "a " + name.val() + " with " + sides.val() + " sides")
+        .caseOf(BoxTu(contents), () -> "a box")
+    );
+
+    @Test
+    public void testReuse()
+    {
+        Assert.assertEquals("a triangle", describe.apply(Shape("triangle", 3)));
+        Assert.assertEquals("a square block", describe.apply(Shape("block", 4)));
+        Assert.assertEquals("a star with 5 sides", describe.apply(Shape("star", 5)));
+        Assert.assertEquals("a box", describe.apply(Box(Shape("star", 5))));
+        Assert.assertEquals("a triangle", describe.apply(Shape("triangle", 3)));
+    }
+
+    @Test
+    public void testNoMatch()
+    {
+        Assert.assertEquals(Optional.empty(), describe.applyOpt(new Item(){}));
+        try
+        {
+            describe.apply(new Item(){});
+            Assert.fail();
+        }
+        catch ( MatchError ignore )
+        {
+            // correct
+        }
+    }
+
+    @Test
+    public void testDefault()
+    {
+        Any<Integer> i = new AnyType<Integer>(){};
+        CompiledMatch<Integer, String> numbers = compile(partial(Integer.class)
+            .caseOf(1, () -> "one")
+            .caseOf(i, () -> i.val() < 0, () -> "negative")
+            .caseOf(() -> "other")
+        );
+        Assert.assertEquals("one", numbers.apply(1));
+        Assert.assertEquals("negative", numbers.apply(-5));
+        Assert.assertEquals("other", numbers.apply(5));
+    }
+
+    @Test
+    public void testClassDispatch()
+    {
+        AtomicInteger unrelatedChecks = new AtomicInteger();
+        ClassTuple unrelated = () -> {
+            unrelatedChecks.incrementAndGet();
+            return Tu(name);
+        };
+        Any<Item> anyItem = new AnyType<Item>(){};
+        Partial<Object> partial = partial(Object.class)
+            .caseOf(unrelated, () -> "unrelated")
+            .caseOf("literal", () -> "literal")
+            .caseOf(BoxTu(contents), () -> "box")
+            .caseOf(anyItem, () -> "item")
+            .caseOf(ShapeTu(name, sides), () -> "shape");
+        CompiledMatch<Object, String> compiled = compile(partial);
+
+        Assert.assertEquals("box", compiled.apply(Box(Shape("x", 1))));
+        Assert.assertEquals("shape", compiled.apply(Shape("x", 1)));
+        Assert.assertEquals("literal", compiled.apply("literal"));
+        Assert.assertEquals("box", partial.with(Box(Shape("x", 1))).get());
+        Assert.assertEquals(0, unrelatedChecks.get());
+    }
+
+    @Test
+    public void testTupleComputedOncePerMatch()
+    {
+        AtomicInteger tupleCalls = new AtomicInteger();
+        Tuplable point = () -> {
+            tupleCalls.incrementAndGet();
+            return Tu(3, 4);
+        };
+        Any<Integer> y = new AnyType<Integer>(){};
+        Partial<Tuplable> partial = partial(Tuplable.class)
+            .caseOf(Tu(0, 0), () -> "origin")
+            .caseOf(Tu(0, y), () -> "y axis")
+            .caseOf(Tu(1, y), () -> "one")
+            .caseOf(Tu(3, y), () -> "three " + y.val());
+
+        Assert.assertEquals("three 4", compile(partial).apply(point));
+        Assert.assertEquals(1, tupleCalls.get());
+        Assert.assertEquals("three 4", Matcher.match(point).caseOf(Tu(0, 0), () -> "origin").caseOf(Tu(3, y), () -> "three " + y.val()).get());
+        Assert.assertEquals(2, tupleCalls.get());
+    }
+
+    @Test
+    public void testLiteralCases()
+    {
+        Any<Object> other = new AnyType<Object>(){};
+        Partial<Object> partial = partial(Object.class);
+        for ( int i = 0; i < 200; ++i )
+        {
+            String command = "command" + i;
+            partial.caseOf(command, () -> "string " + command);
+        }
+        partial.caseOf("command1", () -> "duplicate")
+            .caseOf(other, () -> other.val().equals(2L), () -> "long two")
+            .caseOf(1, () -> "int one")
+            .caseOf(2, () -> "int two")
+            .caseOf(TimeUnit.SECONDS, () -> "seconds")
+            .caseOf(TimeUnit.DAYS, () -> "days")
+            .caseOf('c', () -> "char")
+            .caseOf(ShapeTu(name, sides), () -> "shape")
+            .caseOf(() -> "default");
+        CompiledMatch<Object, String> compiled = compile(partial);
+
+        Assert.assertEquals("string command0", compiled.apply("command0"));
+        Assert.assertEquals("string command1", compiled.apply("command1"));
+        Assert.assertEquals("string command199", compiled.apply("command199"));
+        Assert.assertEquals("default", compiled.apply("command200"));
+        Assert.assertEquals("int one", compiled.apply(1));
+        Assert.assertEquals("long two", compiled.apply(2L));
+        Assert.assertEquals("default", compiled.apply(1L));
+        Assert.assertEquals("days", compiled.apply(TimeUnit.DAYS));
+        Assert.assertEquals("char", compiled.apply('c'));
+        Assert.assertEquals("shape", compiled.apply(Shape("x", 2)));
+        Assert.assertEquals("default", compiled.apply(new Object()));
+        Assert.assertEquals("string command5", partial.with("command5").get());
+    }
+
+    @Test
+    public void testCompileIsSnapshot()
+    {
+        Partial<Integer> partial = partial(Integer.class).caseOf(1, () -> "one");
+        CompiledMatch<Integer, String> compiled = compile(partial);
+        partial.caseOf(2, () -> "two");
+        Assert.assertEquals(Optional.empty(), compiled.applyOpt(2));
+        Assert.assertEquals("two", partial.with(2).get());
+    }
+
+    @Test
+    public void testNullResultIsTheSameAsMatcherGet()
+    {
+        Partial<Integer> partial = partial(Integer.class).caseOf(1, () -> null).caseOf(2, () -> "two");
+        CompiledMatch<Integer, String> compiled = compile(partial);
+        Assert.assertEquals("two", compiled.apply(2));
+        assertMatchError(() -> partial.with(1).get());
+        assertMatchError(() -> compiled.apply(1));
+        assertMatchError(() -> compiled.apply(3));
+        Assert.assertEquals(Optional.empty(), compiled.applyOpt(1));
+    }
+
+    private static void assertMatchError(Runnable proc)
+    {
+        try
+        {
+            proc.run();
+            Assert.fail("Expected MatchError");
+        }
+        catch ( MatchError ignore )
+        {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.sugar.ConsList;
+import io.soabase.halva.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.soabase.halva.matcher.Matcher.anyHeadAnyTail;
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.sugar.Sugar.List;
+import static io.soabase.halva.tuple.Tuple.Pair;
+
+public class TestConcurrentPartial
+{
+    private static final Any<String> name = new AnyType<String>(){};
+    private static final Any<Integer> number = new AnyType<Integer>(){};
+    private static final Partial<Pair<String, Integer>> describe = partial(new AnyType<Pair<String, Integer>>(){})
+        .caseOf(Pair(name, number), () -> {
+            Thread.yield();
+            return name.val() + "-" + number.val();
+        });
+
+    private static final Any<Integer> head = new AnyType<Integer>(){};
+    private static final Any<ConsList<Integer>> tail = new AnyType<ConsList<Integer>>(){};
+    private static final Partial<ConsList<Integer>> sum = partial(new AnyType<ConsList<Integer>>(){})
+        .caseOf(List(), () -> 0)
+        .caseOf(anyHeadAnyTail(head, tail), () -> TestConcurrentPartial.sum.with(tail.val()).<Integer>get() + head.val());
+
+    @Test
+    public void testConcurrentEvaluation() throws Exception
+    {
+        int threadQty = 8;
+        ExecutorService service = Executors.newFixedThreadPool(threadQty);
+        try
+        {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for ( int i = 0; i < threadQty; ++i )
+            {
+                String threadName = "thread" + i;
+                Callable<Boolean> proc = () -> {
+                    for ( int j = 0; j < 10000; ++j )
+                    {
+                        String result = describe.with(Pair(threadName, j)).get();
+                        if ( !result.equals(threadName + "-" + j) )
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+                futures.add(service.submit(proc));
+            }
+            for ( Future<Boolean> future : futures )
+            {
+                Assert.assertTrue(future.get());
+            }
+        }
+        finally
+        {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReentrantEvaluation()
+    {
+        Assert.assertEquals(15, (int)sum.with(List(1, 2, 3, 4, 5)).get());
+    }
+
+    @Test
+    public void testValueReadableAfterMatch()
+    {
+        describe.with(Pair("after", 1)).get();
+        Assert.assertEquals("after", name.val());
+    }
+}
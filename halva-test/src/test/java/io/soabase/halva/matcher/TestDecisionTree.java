@@ -0,0 +1,165 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.caseclass.CaseClass;
+import io.soabase.halva.tuple.Tuple;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static io.soabase.halva.matcher.Add.Add;
+import static io.soabase.halva.matcher.Add.AddTu;
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.matcher.Neg.Neg;
+import static io.soabase.halva.matcher.Neg.NegTu;
+import static io.soabase.halva.matcher.Num.Num;
+import static io.soabase.halva.matcher.Num.NumTu;
+import static io.soabase.halva.tuple.Tuple.Pair;
+import static io.soabase.halva.tuple.Tuple.Tu;
+
+public class TestDecisionTree
+{
+    interface Expr{}
+    @CaseClass interface Num_ extends Expr{int value();}
+    @CaseClass interface Add_ extends Expr{Expr left(); Expr right();}
+    @CaseClass interface Neg_ extends Expr{Expr expr();}
+
+    private static final Any<Integer> n = new AnyType<Integer>(){};
+    private static final Any<Expr> x = new AnyType<Expr>(){};
+    private static final Any<Expr> y = new AnyType<Expr>(){};
+
+    @Test
+    public void testNestedCaseClasses()
+    {
+        Partial<Expr> simplify = partial(Expr.class)
+            .caseOf(AddTu(NumTu(0), x), () -> "0+" + x.val())
+            .caseOf(AddTu(x, NumTu(0)), () -> x.val() + "+0")
+            .caseOf(AddTu(NumTu(n), NegTu(NumTu(n))), () -> "cancel")
+            .caseOf(AddTu(NumTu(n), y), () -> n.val() < 0, () -> "negative " + n.val() + "+" + y.val())
+            .caseOf(AddTu(x, y), () -> x.val() + "+" + y.val())
+            .caseOf(NegTu(NegTu(x)), () -> "double negation " + x.val())
+            .caseOf(NegTu(NumTu(n)), () -> "-" + n.val())
+            .caseOf(() -> "other");
+
+        List<Expr> values = Arrays.asList(
+            Add(Num(0), Num(1)),
+            Add(Num(1), Num(0)),
+            Add(Num(2), Neg(Num(2))),
+            Add(Num(2), Neg(Num(3))),
+            Add(Num(-2), Num(3)),
+            Add(Neg(Num(1)), Num(3)),
+            Neg(Neg(Num(4))),
+            Neg(Num(5)),
+            Neg(Add(Num(1), Num(2))),
+            Num(6)
+        );
+        assertSameResults(simplify, values);
+    }
+
+    @Test
+    public void testLiteralsAndTuples()
+    {
+        Any<String> s = new AnyType<String>(){};
+        Any<Integer> i = new AnyType<Integer>(){};
+        Predicate<Object> isLong = v -> (v instanceof String) && (((String)v).length() > 3);
+        Partial<Object> partial = partial(Object.class)
+            .caseOf("GET", () -> "get")
+            .caseOf("PUT", () -> "put")
+            .caseOf(Pair("GET", s), () -> "get " + s.val())
+            .caseOf(Pair(s, 1), () -> "one " + s.val())
+            .caseOf(Pair(isLong, i), () -> "long " + i.val())
+            .caseOf(Tu(Pair(s, i), "x"), () -> "nested " + s.val() + i.val())
+            .caseOf(s, () -> "string " + s.val())
+            .caseOf(i, () -> i.val() > 10, () -> "big " + i.val())
+            .caseOf(NumTu(n), () -> "num " + n.val());
+
+        List<Object> values = Arrays.asList(
+            "GET",
+            "PUT",
+            "DELETE",
+            Pair("GET", "/"),
+            Pair("a", 1),
+            Pair("abcd", 2),
+            Pair("ab", 2),
+            Tu(Pair("a", 1), "x"),
+            Tu(Pair("a", 1), "y"),
+            5,
+            50,
+            Num(7),
+            Tu("GET"),
+            Pair(Num(1), Num(2)),
+            2.5
+        );
+        assertSameResults(partial, values);
+    }
+
+    @Test
+    public void testNull()
+    {
+        Partial<Object> partial = partial(Object.class)
+            .caseOf("a", () -> "a")
+            .caseOf(Matcher.anyNull(), () -> "null")
+            .caseOf(() -> "other");
+        CompiledMatch<Object, String> compiled = compile(partial, CompileOption.DECISION_TREE);
+        Assert.assertEquals("null", compiled.apply(null));
+        Assert.assertEquals("a", compiled.apply("a"));
+        Assert.assertEquals("other", compiled.apply("b"));
+    }
+
+    @Test
+    public void testSharedTestsRunOnce()
+    {
+        AtomicInteger tests = new AtomicInteger();
+        Predicate<Object> isPositive = v -> {
+            tests.incrementAndGet();
+            return ((Integer)v) > 0;
+        };
+        Any<Integer> i = new AnyType<Integer>(){};
+        CompiledMatch<Tuple, String> compiled = compile(partial(Tuple.class)
+            .caseOf(Pair(isPositive, 1), () -> "one")
+            .caseOf(Pair(isPositive, 2), () -> "two")
+            .caseOf(Pair(isPositive, i), () -> "positive " + i.val())
+            .caseOf(() -> "other"), CompileOption.DECISION_TREE
+        );
+
+        Assert.assertEquals("positive 3", compiled.apply(Pair(5, 3)));
+        Assert.assertEquals(1, tests.get());
+        Assert.assertEquals("two", compiled.apply(Pair(5, 2)));
+        Assert.assertEquals(2, tests.get());
+        Assert.assertEquals("other", compiled.apply(Pair(-5, 2)));
+        Assert.assertEquals(3, tests.get());
+    }
+
+    private static <ARG> void assertSameResults(Partial<ARG> partial, List<? extends ARG> values)
+    {
+        CompiledMatch<ARG, String> linear = compile(partial);
+        CompiledMatch<ARG, String> tree = compile(partial, CompileOption.DECISION_TREE);
+        for ( ARG value : values )
+        {
+            Optional<String> expected = linear.applyOpt(value);
+            Assert.assertEquals(String.valueOf(value), expected, tree.applyOpt(value));
+            Assert.assertEquals(String.valueOf(value), expected, partial.with(value).getOpt());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import org.junit.Assert;
+import org.junit.Test;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import static io.soabase.halva.matcher.Matcher.instrument;
+import static io.soabase.halva.matcher.Matcher.partial;
+
+public class TestInstrumentedMatch
+{
+    @Test
+    public void testStats()
+    {
+        Any<Integer> i = new AnyType<Integer>(){};
+        InstrumentedMatch<Integer, String> matcher = instrument("numbers", partial(Integer.class)
+            .caseOf(1, () -> "one")
+            .caseOf(i, () -> i.val() < 0, () -> "negative")
+            .caseOf(2, () -> "two")
+        );
+
+        Assert.assertEquals("one", matcher.apply(1));
+        Assert.assertEquals("negative", matcher.apply(-1));
+        Assert.assertEquals("two", matcher.apply(2));
+        Assert.assertEquals(Optional.empty(), matcher.applyOpt(3));
+
+        MatchStats stats = matcher.getStats();
+        Assert.assertEquals("numbers", stats.getName());
+        Assert.assertEquals(4, stats.getEvaluations());
+        Assert.assertEquals(0, stats.getDefaultMatches());
+        Assert.assertEquals(1, stats.getNoMatches());
+        Assert.assertEquals(3, stats.getCases().size());
+
+        CaseStats one = stats.getCases().get(0);
+        Assert.assertEquals(4, one.getAttempts());
+        Assert.assertEquals(1, one.getMatches());
+        Assert.assertEquals(0, one.getGuardFailures());
+
+        CaseStats negative = stats.getCases().get(1);
+        Assert.assertEquals(3, negative.getAttempts());
+        Assert.assertEquals(1, negative.getMatches());
+        Assert.assertEquals(2, negative.getGuardFailures());
+
+        CaseStats two = stats.getCases().get(2);
+        Assert.assertEquals(2, two.getAttempts());
+        Assert.assertEquals(1, two.getMatches());
+        Assert.assertEquals(0, two.getGuardFailures());
+
+        matcher.resetStats();
+        Assert.assertEquals(0, matcher.getStats().getEvaluations());
+        Assert.assertEquals(0, matcher.getStats().getCases().get(0).getAttempts());
+    }
+
+    @Test
+    public void testDefault()
+    {
+        InstrumentedMatch<String, String> matcher = instrument("strings", partial(String.class)
+            .caseOf("a", () -> "a")
+            .caseOf(() -> "other")
+        );
+        Assert.assertEquals("other", matcher.apply("b"));
+        Assert.assertEquals("a", matcher.apply("a"));
+        Assert.assertEquals(1, matcher.getStats().getDefaultMatches());
+        Assert.assertEquals(0, matcher.getStats().getNoMatches());
+    }
+
+    @Test
+    public void testMBean() throws Exception
+    {
+        InstrumentedMatch<String, String> matcher = instrument("test:mbean", partial(String.class)
+            .caseOf("a", () -> "a")
+            .caseOf("b", () -> "b")
+        );
+        ObjectName objectName = matcher.registerMBean();
+        try
+        {
+            matcher.apply("b");
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Assert.assertEquals(1L, server.getAttribute(objectName, "Evaluations"));
+            CompositeData[] cases = (CompositeData[])server.getAttribute(objectName, "Cases");
+            Assert.assertEquals(2, cases.length);
+            Assert.assertEquals(1L, cases[0].get("attempts"));
+            Assert.assertEquals(1L, cases[1].get("matches"));
+
+            server.invoke(objectName, "resetStats", null, null);
+            Assert.assertEquals(0L, server.getAttribute(objectName, "Evaluations"));
+        }
+        finally
+        {
+            matcher.unregisterMBean();
+        }
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+
+    @Test
+    public void testMBeanNameConflict()
+    {
+        Partial<String> partial = partial(String.class).caseOf("a", () -> "a");
+        InstrumentedMatch<String, String> first = partial.instrument("test:conflict");
+        InstrumentedMatch<String, String> second = partial.instrument("test:conflict");
+        ObjectName objectName = first.registerMBean();
+        try
+        {
+            Assert.assertEquals(objectName, first.registerMBean());
+            try
+            {
+                second.registerMBean();
+                Assert.fail();
+            }
+            catch ( IllegalStateException ignore )
+            {
+                // expected
+            }
+
+            // the other matcher's bean is never unregistered
+            second.unregisterMBean();
+            Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        }
+        finally
+        {
+            first.unregisterMBean();
+        }
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.tuple.Tuple.Pair;
+
+public class TestPartialBatch
+{
+    private static final Any<String> name = new AnyType<String>(){};
+    private static final Any<Integer> number = new AnyType<Integer>(){};
+    private static final Partial<Pair<String, Integer>> describe = partial(new AnyType<Pair<String, Integer>>(){})
+        .caseOf(Pair("zero", 0), () -> "none")
+        .caseOf(Pair(name, number), () -> name.val() + "-" + number.val());
+
+    @Test
+    public void testApplyAll()
+    {
+        List<String> results = describe.applyAll(Arrays.asList(Pair("a", 1), Pair("zero", 0), Pair("b", 2)));
+        Assert.assertEquals(Arrays.asList("a-1", "none", "b-2"), results);
+    }
+
+    @Test
+    public void testMapStream()
+    {
+        List<String> results = describe.<String>mapStream(IntStream.range(0, 3).mapToObj(i -> Pair("s", i))).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("s-0", "s-1", "s-2"), results);
+    }
+
+    @Test
+    public void testParallel()
+    {
+        List<Pair<String, Integer>> values = IntStream.range(0, 100000).mapToObj(i -> Pair("p" + (i % 7), i)).collect(Collectors.toList());
+        List<String> expected = values.stream().map(p -> p._1 + "-" + p._2).collect(Collectors.toList());
+        Assert.assertEquals(expected, describe.applyAllParallel(values));
+        Assert.assertEquals(expected, describe.<String>mapStream(values.parallelStream()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testUnitCases()
+    {
+        LongAdder total = new LongAdder();
+        Partial<Pair<String, Integer>> add = partial(new AnyType<Pair<String, Integer>>(){})
+            .caseOfUnit(Pair(name, number), () -> total.add(number.val()));
+
+        add.applyEach(Arrays.asList(Pair("a", 1), Pair("b", 2)));
+        Assert.assertEquals(3, total.sum());
+
+        List<Pair<String, Integer>> values = IntStream.range(0, 1000).mapToObj(i -> Pair("p", i)).collect(Collectors.toList());
+        add.applyEachParallel(values);
+        Assert.assertEquals(3 + 499500, total.sum());
+
+        // like get(), the result returning methods treat a null result as no match
+        try
+        {
+            add.applyAll(Arrays.asList(Pair("a", 1)));
+            Assert.fail();
+        }
+        catch ( MatchError ignore )
+        {
+            // expected
+        }
+    }
+
+    @Test(expected = MatchError.class)
+    public void testApplyEachNoMatch()
+    {
+        partial(Integer.class).caseOfUnit(1, () -> {}).applyEach(Arrays.asList(1, 2));
+    }
+
+    @Test(expected = MatchError.class)
+    public void testNoMatch()
+    {
+        partial(Integer.class).caseOf(1, () -> "one").applyAll(Arrays.asList(1, 2));
+    }
+}
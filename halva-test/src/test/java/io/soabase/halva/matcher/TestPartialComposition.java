@@ -0,0 +1,115 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.matcher.Matcher.recur;
+
+public class TestPartialComposition
+{
+    @Test
+    public void testIsDefinedAt()
+    {
+        AtomicInteger procCount = new AtomicInteger();
+        Any<Integer> n = new AnyType<Integer>(){};
+        Partial<Integer> positive = partial(Integer.class)
+            .caseOf(n, () -> n.val() > 0, () -> procCount.incrementAndGet());
+
+        n.set(-100);
+        Assert.assertTrue(positive.isDefinedAt(10));
+        Assert.assertFalse(positive.isDefinedAt(-10));
+        Assert.assertEquals(0, procCount.get());
+        Assert.assertEquals(-100, n.val().intValue());
+
+        Assert.assertTrue(partial(Integer.class).caseOf(() -> "default").isDefinedAt(1));
+    }
+
+    @Test
+    public void testOrElse()
+    {
+        Any<Integer> n = new AnyType<Integer>(){};
+        Partial<Integer> small = partial(Integer.class)
+            .caseOf(1, () -> "one")
+            .caseOf(2, () -> "two");
+        Partial<Integer> negative = partial(Integer.class)
+            .caseOf(n, () -> n.val() < 0, () -> "negative " + n.val());
+        Partial<Integer> other = partial(Integer.class)
+            .caseOf(() -> "other");
+
+        Partial<Integer> combined = small.orElse(negative).orElse(other);
+        Assert.assertEquals("one", combined.with(1).get());
+        Assert.assertEquals("negative -5", combined.with(-5).get());
+        Assert.assertEquals("other", combined.with(5).get());
+        Assert.assertFalse(small.orElse(negative).isDefinedAt(5));
+
+        // a default hides the cases of the other partial
+        Assert.assertEquals("other", other.orElse(small).with(1).get());
+
+        // the sources are not changed
+        Assert.assertFalse(small.with(5).getOpt().isPresent());
+    }
+
+    @Test
+    public void testAndThen()
+    {
+        Any<String> s = new AnyType<String>(){};
+        Partial<String> length = partial(String.class)
+            .caseOf("", () -> 0)
+            .caseOf(s, () -> s.val().length());
+        Partial<String> doubled = length.<Integer, Integer>andThen(i -> i * 2);
+
+        Assert.assertEquals(0, doubled.with("").<Integer>get().intValue());
+        Assert.assertEquals(6, doubled.with("abc").<Integer>get().intValue());
+        Assert.assertEquals(3, length.with("abc").<Integer>get().intValue());
+    }
+
+    @Test
+    public void testAndThenWithUnitCases()
+    {
+        AtomicInteger unitCount = new AtomicInteger();
+        AtomicInteger mapperCount = new AtomicInteger();
+        Partial<Integer> partial = partial(Integer.class)
+            .caseOf(1, () -> "one")
+            .caseOfUnit(2, unitCount::incrementAndGet);
+        Partial<Integer> mapped = partial.<String, String>andThen(str -> {
+            mapperCount.incrementAndGet();
+            return str.toUpperCase();
+        });
+
+        Assert.assertEquals("ONE", mapped.with(1).get());
+        Assert.assertFalse(mapped.with(2).getOpt().isPresent());
+        Assert.assertEquals(1, unitCount.get());
+        Assert.assertEquals(1, mapperCount.get());
+    }
+
+    @Test
+    public void testAndThenWithRecur()
+    {
+        Any<Integer> n = new AnyType<Integer>(){};
+        Partial<Integer> countDown = partial(Integer.class)
+            .caseOf(0, () -> "done")
+            .caseOf(n, () -> recur(n.val() - 1));
+        Partial<Integer> mapped = countDown.<String, String>andThen(str -> str + "!");
+
+        Assert.assertEquals("done!", mapped.with(100).get());
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.caseclass.CaseClass;
+import io.soabase.halva.tuple.Tuple;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.soabase.halva.matcher.Pattern.slot;
+import static io.soabase.halva.matcher.Plus.Plus;
+import static io.soabase.halva.matcher.Plus.PlusTu;
+import static io.soabase.halva.matcher.Lit.Lit;
+import static io.soabase.halva.matcher.Lit.LitTu;
+
+public class TestPattern
+{
+    interface Exp{}
+    @CaseClass interface Lit_ extends Exp{int value();}
+    @CaseClass interface Plus_ extends Exp{Exp left(); Exp right();}
+
+    private static final Pattern plusOfLits = Pattern.of(PlusTu(LitTu(slot(0)), LitTu(slot(1))));
+    private static final Pattern pairWithString = Pattern.of(Tuple.Tu(slot(1, String.class), slot(0)));
+
+    @Test
+    public void testExtract()
+    {
+        Assert.assertEquals(2, plusOfLits.getSlotQty());
+
+        Optional<Bindings> bindings = plusOfLits.extract(Plus(Lit(1), Lit(2)));
+        Assert.assertTrue(bindings.isPresent());
+        Assert.assertEquals(1, bindings.get().<Integer>get(0).intValue());
+        Assert.assertEquals(2, bindings.get().<Integer>get(1).intValue());
+
+        Assert.assertFalse(plusOfLits.extract(Plus(Lit(1), Plus(Lit(2), Lit(3)))).isPresent());
+        Assert.assertFalse(plusOfLits.extract(Lit(1)).isPresent());
+    }
+
+    @Test
+    public void testTypedSlots()
+    {
+        Assert.assertEquals(2, pairWithString.getSlotQty());
+        Optional<Bindings> bindings = pairWithString.extract(Tuple.Tu("a", 10));
+        Assert.assertTrue(bindings.isPresent());
+        Assert.assertEquals(10, bindings.get().<Integer>get(0).intValue());
+        Assert.assertEquals("a", bindings.get().get(1));
+
+        Assert.assertFalse(pairWithString.extract(Tuple.Tu(1, 10)).isPresent());
+    }
+
+    @Test
+    public void testExtractInto()
+    {
+        Object[] slots = new Object[plusOfLits.getSlotQty()];
+        int total = 0;
+        for ( int i = 0; i < 100; ++i )
+        {
+            Assert.assertTrue(plusOfLits.extractInto(Plus(Lit(i), Lit(1)), slots));
+            total += (Integer)slots[0] + (Integer)slots[1];
+        }
+        Assert.assertEquals(5050, total);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSlotsTooSmall()
+    {
+        plusOfLits.extractInto(Plus(Lit(1), Lit(2)), new Object[1]);
+    }
+
+    @Test
+    public void testConcurrent() throws Exception
+    {
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; ++i )
+            {
+                int threadNumber = i;
+                futures.add(service.submit(() -> {
+                    for ( int j = 0; j < 10000; ++j )
+                    {
+                        Bindings bindings = plusOfLits.extract(Plus(Lit(threadNumber), Lit(j))).orElse(null);
+                        if ( (bindings == null) || (bindings.<Integer>get(0) != threadNumber) || (bindings.<Integer>get(1) != j) )
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for ( Future<Boolean> future : futures )
+            {
+                Assert.assertTrue(future.get());
+            }
+        }
+        finally
+        {
+            service.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.Allocations;
+import io.soabase.halva.any.AnyDouble;
+import io.soabase.halva.any.AnyInt;
+import io.soabase.halva.any.AnyLong;
+import io.soabase.halva.caseclass.CaseClass;
+import io.soabase.halva.tuple.Tuple;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.match;
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.matcher.Point.Point;
+import static io.soabase.halva.matcher.Point.PointTu;
+import static io.soabase.halva.matcher.Sample.Sample;
+import static io.soabase.halva.matcher.Sample.SampleTu;
+
+public class TestPrimitiveBinders
+{
+    @CaseClass interface Point_{int x(); int y();}
+    @CaseClass interface Sample_{String name(); long time(); double reading(); Integer boxed();}
+
+    private static final int ITERATIONS = 100000;
+
+    private static final AnyInt x = new AnyInt();
+    private static final AnyInt y = new AnyInt();
+    private static final CompiledMatch<Point, String> quadrant = compile(partial(Point.class)
+        .caseOf(PointTu(0, 0), () -> "origin")
+        .caseOf(PointTu(x, y), () -> (x.val() > 0) && (y.val() > 0), () -> "first")
+        .caseOf(PointTu(x, y), () -> "other")
+    );
+
+    private static final AnyInt a = new AnyInt();
+    private static final AnyInt b = new AnyInt();
+    private static final Partial<Point> describe = partial(Point.class)
+        .caseOf(PointTu(a, b), () -> {
+            int localA = a.val();
+            Thread.yield();
+            return localA + "," + b.val() + "," + a.val();
+        });
+
+    private static final CompiledMatch<Point, Integer> countDown = compile(partial(Point.class)
+        .caseOf(PointTu(0, b), () -> b.val())
+        .caseOf(PointTu(a, b), () -> TestPrimitiveBinders.countDown.apply(Point(a.val() - 1, b.val())) + a.val())
+    );
+
+    @Test
+    public void testCaseClassFields()
+    {
+        Assert.assertEquals("origin", quadrant.apply(Point(0, 0)));
+        Assert.assertEquals("first", quadrant.apply(Point(3, 4)));
+        Assert.assertEquals("other", quadrant.apply(Point(-3, 4)));
+        Assert.assertEquals(-3, x.val());
+        Assert.assertEquals(4, y.val());
+    }
+
+    @Test
+    public void testConcurrentEvaluation() throws Exception
+    {
+        int threadQty = 8;
+        ExecutorService service = Executors.newFixedThreadPool(threadQty);
+        try
+        {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for ( int i = 0; i < threadQty; ++i )
+            {
+                int threadNumber = i;
+                Callable<Boolean> proc = () -> {
+                    for ( int j = 0; j < 10000; ++j )
+                    {
+                        String result = describe.with(Point(threadNumber, j)).get();
+                        if ( !result.equals(threadNumber + "," + j + "," + threadNumber) )
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+                futures.add(service.submit(proc));
+            }
+            for ( Future<Boolean> future : futures )
+            {
+                Assert.assertTrue(future.get());
+            }
+        }
+        finally
+        {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReentrantEvaluation()
+    {
+        // each level reads its own binding after the nested evaluation completes
+        Assert.assertEquals(1 + 2 + 3 + 4 + 100, (int)countDown.apply(Point(4, 100)));
+    }
+
+    @Test
+    public void testIsDefinedAtDoesNotBind()
+    {
+        Assert.assertEquals("1,2,1", describe.with(Point(1, 2)).get());
+        Assert.assertTrue(describe.isDefinedAt(Point(5, 6)));
+        Assert.assertEquals(1, a.val());
+        Assert.assertEquals(2, b.val());
+    }
+
+    @Test
+    public void testMixedFields()
+    {
+        AnyLong time = new AnyLong();
+        AnyDouble reading = new AnyDouble();
+        AnyInt boxed = new AnyInt();
+        AnyInt wrongType = new AnyInt();
+
+        String s = match(Sample("temp", 1000L, 21.5, 7))
+            .caseOf(SampleTu("temp", wrongType, reading, boxed), () -> "wrong")
+            .caseOf(SampleTu("temp", time, reading, boxed), () -> time.val() + " " + reading.val() + " " + boxed.val())
+            .get();
+        Assert.assertEquals("1000 21.5 7", s);
+    }
+
+    @Test
+    public void testTuples()
+    {
+        AnyInt n = new AnyInt();
+        Assert.assertTrue(Tuple.Tu("a", n).extract(Tuple.Tu("a", 10)));
+        Assert.assertEquals(10, n.val());
+        Assert.assertFalse(Tuple.Tu("a", n).extract(Tuple.Tu("a", 10L)));
+    }
+
+    @Test
+    public void testExtractionDoesNotAllocate()
+    {
+        Point[] points = {Point(1000, 2000), Point(-1000, 2000)};
+        Allocations.assertDoesNotAllocate(() -> Assert.assertEquals(ITERATIONS * 4000L, run(points)));
+    }
+
+    private long run(Point[] points)
+    {
+        long total = 0;
+        for ( int i = 0; i < ITERATIONS; ++i )
+        {
+            for ( Point point : points )
+            {
+                quadrant.apply(point);
+                total += y.val();
+            }
+        }
+        return total;
+    }
+}
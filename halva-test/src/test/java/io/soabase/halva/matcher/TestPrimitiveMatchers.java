@@ -0,0 +1,140 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.Allocations;
+import io.soabase.halva.any.AnyDouble;
+import io.soabase.halva.any.AnyInt;
+import io.soabase.halva.any.AnyLong;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Optional;
+
+import static io.soabase.halva.matcher.Matcher.matchDouble;
+import static io.soabase.halva.matcher.Matcher.matchInt;
+import static io.soabase.halva.matcher.Matcher.matchLong;
+
+public class TestPrimitiveMatchers
+{
+    private static final int ITERATIONS = 100000;
+    private static final String HIT = "hit";
+
+    @Test
+    public void testInt()
+    {
+        Assert.assertEquals("zero", httpClass(0));
+        Assert.assertEquals("not found", httpClass(404));
+        Assert.assertEquals("success", httpClass(201));
+        Assert.assertEquals("client error 418", httpClass(418));
+        Assert.assertEquals("negative", httpClass(-1));
+        Assert.assertEquals("other", httpClass(700));
+    }
+
+    @Test
+    public void testLong()
+    {
+        AnyLong n = new AnyLong();
+        String s = matchLong(Long.MAX_VALUE)
+            .caseOf(0L, () -> "zero")
+            .caseOfRange(1L, 1000L, () -> "small")
+            .caseOf(n, value -> value > Integer.MAX_VALUE, () -> "large " + (n.val() - Long.MAX_VALUE))
+            .get();
+        Assert.assertEquals("large 0", s);
+    }
+
+    @Test
+    public void testDouble()
+    {
+        Assert.assertEquals("nan", matchDouble(Double.NaN).caseOf(Double.NaN, () -> "nan").caseOf(() -> "other").get());
+        Assert.assertEquals("other", matchDouble(-0.0).caseOf(0.0, () -> "zero").caseOf(() -> "other").get());
+
+        AnyDouble d = new AnyDouble();
+        Double half = matchDouble(0.25)
+            .caseOfRange(1.0, 2.0, () -> 1.0)
+            .caseOf(d, () -> d.val() * 2)
+            .get();
+        Assert.assertEquals(0.5, half, 0.0);
+    }
+
+    @Test
+    public void testNoMatch()
+    {
+        Optional<String> s = matchInt(1).caseOf(2, () -> "two").getOpt();
+        Assert.assertFalse(s.isPresent());
+
+        try
+        {
+            matchInt(1).caseOf(2, () -> "two").get();
+            Assert.fail("should have thrown");
+        }
+        catch ( MatchError ignore )
+        {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsetBinder()
+    {
+        new AnyInt().val();
+    }
+
+    @Test
+    public void testGetDoesNotBox()
+    {
+        // building the matchers allocates the same in both runs - get() must not add a boxed value per match
+        long applyBytes = Allocations.measure(() -> Assert.assertEquals(0, run(false)));
+        long getBytes = Allocations.measure(() -> Assert.assertEquals(ITERATIONS * 3, run(true)));
+        Assert.assertTrue("Extra allocated bytes: " + (getBytes - applyBytes), (getBytes - applyBytes) < (ITERATIONS * 8L));
+    }
+
+    private int run(boolean useGet)
+    {
+        int hits = 0;
+        for ( int i = 0; i < ITERATIONS; ++i )
+        {
+            IntMatcher intMatcher = matchInt(i + 1000).caseOf(0, () -> "zero").caseOfRange(1000, Integer.MAX_VALUE, () -> HIT);
+            LongMatcher longMatcher = matchLong(i + 1000L).caseOf(0L, () -> "zero").caseOfRange(1000L, Long.MAX_VALUE, () -> HIT);
+            DoubleMatcher doubleMatcher = matchDouble(i + 0.5).caseOf(0.0, () -> "zero").caseOfRange(0.5, Double.MAX_VALUE, () -> HIT);
+            if ( useGet )
+            {
+                hits += (intMatcher.get() == HIT) ? 1 : 0;
+                hits += (longMatcher.get() == HIT) ? 1 : 0;
+                hits += (doubleMatcher.get() == HIT) ? 1 : 0;
+            }
+            else
+            {
+                intMatcher.apply();
+                longMatcher.apply();
+                doubleMatcher.apply();
+            }
+        }
+        return hits;
+    }
+
+    private String httpClass(int code)
+    {
+        AnyInt n = new AnyInt();
+        return matchInt(code)
+            .caseOf(0, () -> "zero")
+            .caseOf(404, () -> "not found")
+            .caseOfRange(200, 299, () -> "success")
+            .caseOf(n, value -> (value >= 400) && (value < 500), () -> "client error " + n.val())
+            .caseOf(value -> value < 0, () -> "negative")
+            .caseOf(() -> "other")
+            .get();
+    }
+}
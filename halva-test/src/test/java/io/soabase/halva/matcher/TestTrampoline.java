@@ -0,0 +1,79 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyType;
+import io.soabase.halva.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static io.soabase.halva.matcher.Matcher.compile;
+import static io.soabase.halva.matcher.Matcher.match;
+import static io.soabase.halva.matcher.Matcher.partial;
+import static io.soabase.halva.matcher.Matcher.recur;
+import static io.soabase.halva.tuple.Tuple.Pair;
+
+public class TestTrampoline
+{
+    private static final int DEPTH = 1000000;
+
+    private static final Any<Integer> count = new AnyType<Integer>(){};
+    private static final Any<Long> total = new AnyType<Long>(){};
+    private static final CompiledMatch<Pair<Integer, Long>, Long> sum = compile(partial(new AnyType<Pair<Integer, Long>>(){})
+        .caseOf(Pair(0, total), total::val)
+        .caseOf(Pair(count, total), () -> recur(Pair(count.val() - 1, total.val() + count.val())))
+    );
+
+    @Test
+    public void testCompiled()
+    {
+        Assert.assertEquals(DEPTH * (DEPTH + 1L) / 2, sum.apply(Pair(DEPTH, 0L)).longValue());
+        Assert.assertEquals(6L, sum.apply(Pair(3, 0L)).longValue());
+    }
+
+    @Test
+    public void testOneShot()
+    {
+        Assert.assertEquals("done", countDown(DEPTH));
+    }
+
+    @Test
+    public void testNested()
+    {
+        // a non-tail match inside of a proc has its own loop
+        Any<Integer> n = new AnyType<Integer>(){};
+        String s = match(10)
+            .caseOf(n, () -> countDown(n.val()) + "-" + n.val())
+            .get();
+        Assert.assertEquals("done-10", s);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOutsideOfProc()
+    {
+        recur(1);
+    }
+
+    private static String countDown(int start)
+    {
+        Any<Integer> n = new AnyType<Integer>(){};
+        return match(start)
+            .caseOf(0, () -> "done")
+            .caseOf(n, () -> recur(n.val() - 1))
+            .get();
+    }
+}
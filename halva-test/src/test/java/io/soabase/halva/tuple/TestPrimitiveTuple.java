@@ -0,0 +1,139 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+import io.soabase.halva.Allocations;
+import io.soabase.halva.any.AnyDouble;
+import io.soabase.halva.any.AnyInt;
+import io.soabase.halva.any.AnyLong;
+import io.soabase.halva.tuple.details.IntLongTuple;
+import io.soabase.halva.tuple.details.IntObjTuple;
+import io.soabase.halva.tuple.details.ObjIntTuple;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.soabase.halva.matcher.Matcher.match;
+import static io.soabase.halva.tuple.Tuple.DoubleDoubleDoubleTuple;
+import static io.soabase.halva.tuple.Tuple.IntIntIntTuple;
+import static io.soabase.halva.tuple.Tuple.IntIntTuple;
+import static io.soabase.halva.tuple.Tuple.IntLongTuple;
+import static io.soabase.halva.tuple.Tuple.IntObjTuple;
+import static io.soabase.halva.tuple.Tuple.LongIntTuple;
+import static io.soabase.halva.tuple.Tuple.Pair;
+import static io.soabase.halva.tuple.Tuple.Tu;
+
+public class TestPrimitiveTuple
+{
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void testEqualToBoxed()
+    {
+        Assert.assertEquals(Tu(1, 2L), IntLongTuple(1, 2L));
+        Assert.assertEquals(IntLongTuple(1, 2L), Tu(1, 2L));
+        Assert.assertEquals(Tu(1, 2L).hashCode(), IntLongTuple(1, 2L).hashCode());
+        Assert.assertEquals(Tu(1.5, -0.0, 3.0).hashCode(), DoubleDoubleDoubleTuple(1.5, -0.0, 3.0).hashCode());
+        Assert.assertEquals(Tu(1, "a").hashCode(), IntObjTuple(1, "a").hashCode());
+        Assert.assertEquals(Tu(1, 2L).toString(), IntLongTuple(1, 2L).toString());
+
+        Assert.assertNotEquals(Tu(1, 2), IntLongTuple(1, 2L));
+        Assert.assertNotEquals(IntLongTuple(1, 2L), LongIntTuple(1L, 2));
+        Assert.assertNotEquals(IntLongTuple(1, 2L), IntLongTuple(1, 3L));
+        Assert.assertEquals(IntLongTuple(1, 2L), IntLongTuple(1, 2L));
+        Assert.assertEquals(IntObjTuple(1, "a"), IntObjTuple(1, "a"));
+        Assert.assertNotEquals(IntObjTuple(1, "a"), IntObjTuple(1, "b"));
+        Assert.assertEquals(Tu(IntIntTuple(1, 2)), IntIntTuple(1, 2));
+    }
+
+    @Test
+    public void testEqualityIsTransitive()
+    {
+        // tuples of the same size with equal items are equal regardless of their classes
+        List<Tuple> tuples = Arrays.asList(IntIntTuple(1, 2), Pair(1, 2), Tu(1, 2));
+        for ( Tuple lhs : tuples )
+        {
+            for ( Tuple rhs : tuples )
+            {
+                Assert.assertEquals(lhs + " " + rhs.getClass().getSimpleName(), lhs, rhs);
+                Assert.assertEquals(lhs.hashCode(), rhs.hashCode());
+            }
+            Assert.assertNotEquals(lhs, Tu(1, 2, 3));
+            Assert.assertNotEquals(lhs, IntIntIntTuple(1, 2, 3));
+            Assert.assertNotEquals(lhs, Pair(2, 1));
+        }
+    }
+
+    @Test
+    public void testMapKeys()
+    {
+        Map<Tuple, String> map = new HashMap<>();
+        map.put(IntLongTuple(1, 2L), "primitive");
+        Assert.assertEquals("primitive", map.get(Tu(1, 2L)));
+        map.put(Tu(3, 4L), "boxed");
+        Assert.assertEquals("boxed", map.get(IntLongTuple(3, 4L)));
+    }
+
+    @Test
+    public void testExtract()
+    {
+        AnyInt i = new AnyInt();
+        AnyLong l = new AnyLong();
+        AnyDouble d = new AnyDouble();
+        Assert.assertTrue(Tu(i, l).extract(IntLongTuple(10, 20L)));
+        Assert.assertEquals(10, i.val());
+        Assert.assertEquals(20L, l.val());
+        Assert.assertFalse(Tu(i, d).extract(IntLongTuple(10, 20L)));
+
+        String s = match(IntLongTuple(5, 100L))
+            .caseOf(Tu(4, l), () -> "four")
+            .caseOf(Tu(5, l), () -> "five " + l.val())
+            .get();
+        Assert.assertEquals("five 100", s);
+    }
+
+    @Test
+    public void testSwap()
+    {
+        ObjIntTuple<String> swapped = IntObjTuple(1, "a").swap();
+        Assert.assertEquals(Tu("a", 1), swapped);
+        Assert.assertEquals(LongIntTuple(2L, 1), IntLongTuple(1, 2L).swap());
+    }
+
+    @Test
+    public void testEqualsAndHashCodeDoNotAllocate()
+    {
+        IntLongTuple lhs = IntLongTuple(100000, 200000L);
+        IntLongTuple rhs = IntLongTuple(100000, 200000L);
+        Allocations.assertDoesNotAllocate(() -> Assert.assertEquals(ITERATIONS, run(lhs, rhs)));
+    }
+
+    private int run(IntLongTuple lhs, IntLongTuple rhs)
+    {
+        int total = 0;
+        for ( int i = 0; i < ITERATIONS; ++i )
+        {
+            if ( lhs.equals(rhs) && (lhs.hashCode() == rhs.hashCode()) )
+            {
+                ++total;
+            }
+        }
+        return total;
+    }
+}
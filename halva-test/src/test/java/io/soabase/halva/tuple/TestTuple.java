@@ -22,9 +22,15 @@ import io.soabase.halva.sugar.ConsList;
 import org.junit.Assert;
 import org.junit.Test;
 import java.nio.charset.Charset;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static io.soabase.halva.matcher.Matcher.match;
@@ -83,4 +89,144 @@ public class TestTuple
         Assert.assertEquals(Pair("100", 100) + " :: 20/20 30/30", extractFunc(List(Pair("100", 100), Pair("20", 20), Pair("30", 30))));
         Assert.assertEquals(Pair("66", 66) + " :: " + List(Pair("100", 100), Pair("200", 200)), extractFunc(List(Pair("66", 66), Pair("100", 100), Pair("200", 200))));
     }
+
+    @Test
+    public void testCollectionContract()
+    {
+        Tuple tuple = Tu("a", null, 3);
+        List<Object> list = Arrays.asList("a", null, 3);
+        Assert.assertEquals(list.hashCode(), tuple.hashCode());
+        Assert.assertEquals(3, tuple.size());
+        Assert.assertTrue(tuple.contains(null));
+        Assert.assertTrue(tuple.containsAll(Arrays.asList(3, "a")));
+        Assert.assertFalse(tuple.contains("b"));
+        Assert.assertArrayEquals(list.toArray(), tuple.toArray());
+        Assert.assertArrayEquals(list.toArray(), tuple.toArray(new Object[0]));
+        Assert.assertEquals(list, tuple.stream().collect(Collectors.toList()));
+        Assert.assertEquals("(\"a\", null, 3)", tuple.toString());
+        Assert.assertEquals(0, Tu().size());
+        Assert.assertFalse(Tu().iterator().hasNext());
+    }
+
+    @Test
+    public void testCachedHashCode()
+    {
+        AtomicInteger hashCount = new AtomicInteger();
+        Object counted = new Object()
+        {
+            @Override
+            public int hashCode()
+            {
+                hashCount.incrementAndGet();
+                return 123;
+            }
+        };
+
+        // only tuples of immutable items (boxed primitives, strings, etc.) cache their hash codes - other
+        // objects might be mutable so they're re-hashed each time
+        Tuple tuple = Tu("a", counted);
+        int hashCode = tuple.hashCode();
+        Assert.assertEquals(hashCode, tuple.hashCode());
+        Assert.assertEquals(2, hashCount.get());
+        Assert.assertEquals(Arrays.asList("a", counted).hashCode(), hashCode);
+
+        Tuple plain = Tu("a", 1, Tu(2L, null), Thread.State.NEW);
+        Assert.assertEquals(plain.hashCode(), plain.hashCode());
+        Assert.assertEquals(Arrays.asList("a", 1, Arrays.asList(2L, null), Thread.State.NEW).hashCode(), plain.hashCode());
+
+        // tuples with Anys are never cached or compared as plain tuples
+        Any<String> any = new AnyType<String>(){};
+        Tuple pattern = Tu("a", any);
+        pattern.hashCode();
+        Assert.assertTrue(pattern.extract(Tu("a", "b")));
+        Assert.assertTrue(pattern.extract(Tu("a", "c")));
+        Assert.assertEquals("c", any.val());
+    }
+
+    @Test
+    public void testPlainEquality()
+    {
+        Map<Tuple, String> map = new HashMap<>();
+        map.put(Tu("a", 1, null), "one");
+        map.put(Tu("a", 2, null), "two");
+        Assert.assertEquals("one", map.get(Tu("a", 1, null)));
+        Assert.assertEquals("two", map.get(Tu("a", 2, null)));
+        Assert.assertNull(map.get(Tu("a", 1L, null)));
+
+        Assert.assertEquals(Tu(1, 2), Pair(1, 2));
+        Assert.assertNotEquals(Tu(1, 2), Tu(1, 2, 3));
+        Assert.assertEquals(Tu(1, 2), Tuple.IntIntTuple(1, 2));
+        Assert.assertEquals(Tu(Tu(1, 2), 3), Tu(Tu(1, 2), 3));
+
+        // tuples with Anys still extract after the plain tuple has been hashed
+        Tuple value = Tu("a", 1);
+        Assert.assertTrue(map.containsKey(Tu("a", 1, null)) && (value.hashCode() != 0));
+        Any<Integer> any = new AnyType<Integer>(){};
+        Assert.assertTrue(Tu("a", any).extract(value));
+        Assert.assertEquals(1, any.val().intValue());
+        Assert.assertTrue(value.equals(Tu("a", any)));
+    }
+
+    @Test
+    public void testMutableItems()
+    {
+        // tuples with mutable items don't cache their hash codes
+        List<String> list = new ArrayList<>();
+        Tuple tuple = Tu("a", list);
+        int emptyHashCode = tuple.hashCode();
+        list.add("x");
+        Tuple other = Tu("a", new ArrayList<>(Arrays.asList("x")));
+        other.hashCode();
+        Assert.assertNotEquals(emptyHashCode, tuple.hashCode());
+        Assert.assertEquals(other.hashCode(), tuple.hashCode());
+        Assert.assertEquals(other, tuple);
+        Assert.assertEquals(tuple, other);
+
+        // single item nested tuples are equal to the item - both ways and after hashing
+        Tuple nested = Tu(Tu(1, 2));
+        Tuple flat = Tu(1, 2);
+        nested.hashCode();
+        flat.hashCode();
+        Assert.assertEquals(nested, flat);
+        Assert.assertEquals(Tu("a", Tu(1)), Tu("a", 1));
+        Assert.assertEquals(Tu("a", 1), Tu("a", Tu(1)));
+    }
+
+    @Test
+    public void testExternalTupleGet()
+    {
+        class ExternalTuple extends AbstractCollection<Object> implements Tuple
+        {
+            @Override
+            public Iterator<Object> iterator()
+            {
+                return Arrays.<Object>asList("a", "b").iterator();
+            }
+
+            @Override
+            public int size()
+            {
+                return 2;
+            }
+
+            @Override
+            public boolean extract(Object o)
+            {
+                return false;
+            }
+        }
+
+        Tuple tuple = new ExternalTuple();
+        Assert.assertEquals("a", tuple.get(0));
+        Assert.assertEquals("b", tuple.get(1));
+        try
+        {
+            tuple.get(2);
+            Assert.fail();
+        }
+        catch ( IndexOutOfBoundsException ignore )
+        {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+import io.soabase.halva.Allocations;
+import io.soabase.halva.any.AnyInt;
+import io.soabase.halva.any.AnyLong;
+import io.soabase.halva.tuple.details.TupleBatchRow;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.soabase.halva.matcher.Matcher.match;
+import static io.soabase.halva.tuple.Tuple.IntLongTuple;
+import static io.soabase.halva.tuple.Tuple.Tu;
+
+public class TestTupleBatch
+{
+    @Test
+    public void testAddAndGet()
+    {
+        TupleBatch batch = TupleBatch.of(long.class, int.class, String.class);
+        for ( int i = 0; i < 100; ++i )
+        {
+            batch.add((long)i * 1000, i, "s" + i);
+        }
+        batch.add(Tu(-1L, -1, null));
+        batch.add(Tu(-2L, -2, null));
+        int row = batch.addRow();
+        batch.setLong(row, 0, 7L);
+        batch.setInt(row, 1, 8);
+        batch.set(row, 2, "nine");
+
+        Assert.assertEquals(3, batch.arity());
+        Assert.assertEquals(103, batch.size());
+        Assert.assertEquals(50000L, batch.getLong(50, 0));
+        Assert.assertEquals(50, batch.getInt(50, 1));
+        Assert.assertEquals("s50", batch.get(50, 2));
+        Assert.assertEquals(-1, batch.get(100, 1));
+        Assert.assertNull(batch.get(100, 2));
+        Assert.assertEquals(Tu(-2L, -2, null), batch.row(101));
+        Assert.assertEquals(Tu(7L, 8, "nine"), batch.row(102));
+        Assert.assertEquals(long.class, batch.getPrimitiveType(0));
+        Assert.assertNull(batch.getPrimitiveType(2));
+    }
+
+    @Test
+    public void testInvalidValues()
+    {
+        TupleBatch batch = TupleBatch.of(long.class, String.class);
+        assertThrows(IllegalArgumentException.class, () -> batch.add(1, "one"));
+        assertThrows(IllegalArgumentException.class, () -> batch.add(1L, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.add(1L));
+        assertThrows(IllegalArgumentException.class, () -> batch.getInt(0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getLong(batch.size(), 0));
+        assertThrows(IllegalArgumentException.class, () -> TupleBatch.of(boolean.class));
+    }
+
+    @Test
+    public void testViews()
+    {
+        TupleBatch batch = TupleBatch.of(int.class, long.class);
+        batch.add(1, 10L).add(2, 20L).add(IntLongTuple(3, 30L));
+
+        List<String> seen = new ArrayList<>();
+        AnyInt i = new AnyInt();
+        AnyLong l = new AnyLong();
+        for ( TupleBatchRow row : batch )
+        {
+            seen.add(match(row)
+                .caseOf(Tu(2, l), () -> "two " + l.val())
+                .caseOf(Tu(i, l), () -> i.val() + "/" + l.val())
+                .get());
+        }
+        Assert.assertEquals(Arrays.asList("1/10", "two 20", "3/30"), seen);
+
+        TupleBatchRow view = batch.view();
+        Assert.assertEquals(Tu(1, 10L), view);
+        Assert.assertEquals(Tu(3, 30L), view.at(2));
+        Assert.assertEquals(Tu(3, 30L).hashCode(), view.hashCode());
+        Assert.assertEquals(Tu(1, 10L).hashCode(), view.at(0).hashCode());
+        Assert.assertEquals(batch.row(1), Tu(2, 20L));
+    }
+
+    @Test
+    public void testColumnScans()
+    {
+        TupleBatch batch = TupleBatch.withCapacity(4, int.class, double.class, String.class);
+        batch.add(1, 1.5, "a").add(2, 2.5, "b").add(3, 3.5, "c");
+        Assert.assertEquals(6, batch.ints(0).sum());
+        Assert.assertEquals(7.5, batch.doubles(1).sum(), 0.0);
+        Assert.assertEquals("abc", batch.objects(2, String.class).collect(Collectors.joining()));
+        assertThrows(IllegalArgumentException.class, () -> batch.longs(0));
+        assertThrows(IllegalArgumentException.class, () -> batch.objects(0, Integer.class));
+    }
+
+    @Test
+    public void testSort()
+    {
+        TupleBatch batch = TupleBatch.of(String.class, int.class, long.class);
+        batch.add("b", 2, 1L).add("a", 2, 2L).add(null, 1, 3L).add("c", 1, 4L).add("a", 1, 5L);
+
+        batch.sortBy(1, 0);
+        Assert.assertEquals(Arrays.asList(3L, 5L, 4L, 2L, 1L), batch.longs(2).boxed().collect(Collectors.toList()));
+
+        batch.sortBy(0);
+        Assert.assertEquals(Arrays.asList(3L, 5L, 2L, 1L, 4L), batch.longs(2).boxed().collect(Collectors.toList()));
+
+        batch.sort(Comparator.comparingLong((TupleBatchRow row) -> row.tupleLong(2)).reversed());
+        Assert.assertEquals(Arrays.asList(5L, 4L, 3L, 2L, 1L), batch.longs(2).boxed().collect(Collectors.toList()));
+        Assert.assertEquals(Tu("a", 1, 5L), batch.row(0));
+
+        // still growable after sorting
+        batch.add("d", 0, 0L);
+        Assert.assertEquals(6, batch.size());
+    }
+
+    @Test
+    public void testSortAfterGrowth()
+    {
+        // the batch grows past its initial capacity so the columns are larger than the number of rows
+        TupleBatch batch = TupleBatch.of(int.class, long.class, double.class, String.class);
+        List<Integer> keys = IntStream.range(0, 100000).boxed().collect(Collectors.toList());
+        Collections.shuffle(keys, new Random(1234));
+        keys.forEach(key -> batch.add(key, key * 10L, key + 0.5, "s" + key));
+
+        batch.sortBy(0);
+        assertSorted(batch);
+
+        // sorting permutes the columns in place - only the row order (two ints per row) is allocated
+        batch.sort(Comparator.comparingInt((TupleBatchRow row) -> row.tupleInt(0) % 7));
+        long allocatedBytes = Allocations.measure(() -> batch.sortBy(2));
+        Assert.assertTrue("Allocated bytes: " + allocatedBytes, allocatedBytes < (batch.size() * 10L));
+        assertSorted(batch);
+
+        batch.add(-1, -10L, -0.5, "s-1");
+        batch.sortBy(0);
+        Assert.assertEquals(Tu(-1, -10L, -0.5, "s-1"), batch.row(0));
+        Assert.assertEquals(Tu(99999, 999990L, 99999.5, "s99999"), batch.row(batch.size() - 1));
+    }
+
+    private static void assertSorted(TupleBatch batch)
+    {
+        for ( int row = 0; row < batch.size(); ++row )
+        {
+            Assert.assertEquals(Tu(row, row * 10L, row + 0.5, "s" + row), batch.row(row));
+        }
+    }
+
+    private static void assertThrows(Class<? extends Exception> type, Runnable proc)
+    {
+        try
+        {
+            proc.run();
+            Assert.fail("Expected " + type.getSimpleName());
+        }
+        catch ( Exception e )
+        {
+            Assert.assertTrue(e.toString(), type.isInstance(e));
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static io.soabase.halva.tuple.Tuple.IntLongTuple;
+import static io.soabase.halva.tuple.Tuple.Pair;
+import static io.soabase.halva.tuple.Tuple.Tu;
+
+public class TestTupleCodec
+{
+    private static final List<Tuple> tuples = Arrays.asList(
+        Tu(),
+        Tu(1, 2L),
+        Tu(Integer.MIN_VALUE, Long.MAX_VALUE, -1, -1L, 0.5, Double.NaN),
+        Tu("hello", "héllo ☃", "", null, true, false),
+        Tu(Tu(1, Tu("nested")), Tu()),
+        Tu(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16)
+    );
+
+    @Test
+    public void testBuffers()
+    {
+        TupleCodec codec = TupleCodec.standard();
+        for ( ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024), slice(ByteBuffer.allocate(1024))) )
+        {
+            tuples.forEach(tuple -> codec.write(tuple, buffer));
+            buffer.flip();
+            tuples.forEach(tuple -> Assert.assertEquals(tuple, codec.read(buffer)));
+            Assert.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testPairRoundTrip()
+    {
+        // decoded as a Tuple2 which is equal to the Pair
+        TupleCodec codec = TupleCodec.standard();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        codec.write(Pair("a", 1), buffer);
+        buffer.flip();
+        Tuple tuple = codec.read(buffer);
+        Assert.assertEquals(Pair("a", 1), tuple);
+        Assert.assertEquals(tuple, Pair("a", 1));
+    }
+
+    @Test
+    public void testDataStreams() throws IOException
+    {
+        TupleCodec codec = TupleCodec.standard();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for ( Tuple tuple : tuples )
+        {
+            codec.write(tuple, out);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for ( Tuple tuple : tuples )
+        {
+            Assert.assertEquals(tuple, codec.read(in));
+        }
+        Assert.assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testCompact()
+    {
+        TupleCodec codec = TupleCodec.standard();
+        // size + 2 * (tag + 1 byte varint)
+        Assert.assertEquals(5, codec.toBytes(Tu(1, -2L)).length);
+        Assert.assertEquals(5, codec.toBytes(IntLongTuple(1, -2L)).length);
+        Assert.assertEquals(Tu(1, -2L), codec.fromBytes(codec.toBytes(IntLongTuple(1, -2L))));
+        Assert.assertArrayEquals(new byte[]{1, 1}, (byte[])codec.fromBytes(codec.toBytes(Tu((Object)new byte[]{1, 1}))).iterator().next());
+    }
+
+    @Test
+    public void testCustomTypes()
+    {
+        TupleCodec codec = TupleCodec.standard().with(20, UUID.class, new TupleCodec.ElementCodec<UUID>()
+        {
+            @Override
+            public void write(UUID value, TupleCodec.Output out) throws IOException
+            {
+                out.writeVarLong(value.getMostSignificantBits());
+                out.writeVarLong(value.getLeastSignificantBits());
+            }
+
+            @Override
+            public UUID read(TupleCodec.Input in) throws IOException
+            {
+                return new UUID(in.readVarLong(), in.readVarLong());
+            }
+        });
+        UUID uuid = UUID.randomUUID();
+        Assert.assertEquals(Tu("id", uuid), codec.fromBytes(codec.toBytes(Tu("id", uuid))));
+
+        try
+        {
+            TupleCodec.standard().toBytes(Tu(uuid));
+            Assert.fail();
+        }
+        catch ( IllegalArgumentException ignore )
+        {
+            // expected
+        }
+        try
+        {
+            TupleCodec.standard().fromBytes(codec.toBytes(Tu(uuid)));
+            Assert.fail();
+        }
+        catch ( IllegalArgumentException ignore )
+        {
+            // expected
+        }
+        try
+        {
+            codec.with(20, String.class, null);
+            Assert.fail();
+        }
+        catch ( IllegalArgumentException ignore )
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCorruptLengths() throws IOException
+    {
+        TupleCodec codec = TupleCodec.standard();
+        for ( int tag : new int[]{6, 7} )   // string, bytes
+        {
+            // a single item claiming Integer.MAX_VALUE bytes followed by a single byte
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeVarLong(out, 1);
+            out.write(tag);
+            writeVarLong(out, Integer.MAX_VALUE);
+            out.write(1);
+            byte[] bytes = out.toByteArray();
+            for ( ByteBuffer buffer : Arrays.asList(ByteBuffer.wrap(bytes), (ByteBuffer)ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()) )
+            {
+                try
+                {
+                    codec.read(buffer);
+                    Assert.fail();
+                }
+                catch ( BufferUnderflowException ignore )
+                {
+                    // expected
+                }
+            }
+            try
+            {
+                codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+                Assert.fail();
+            }
+            catch ( EOFException ignore )
+            {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testLargeBytesFromDataStream() throws IOException
+    {
+        TupleCodec codec = TupleCodec.standard();
+        byte[] value = new byte[100000];
+        new Random().nextBytes(value);
+        Tuple tuple = codec.read(new DataInputStream(new ByteArrayInputStream(codec.toBytes(Tu("x", value)))));
+        Assert.assertArrayEquals(value, (byte[])tuple.get(1));
+    }
+
+    @Test
+    public void testNestingLimit()
+    {
+        TupleCodec codec = TupleCodec.standard();
+        Tuple tuple = Tu();
+        for ( int i = 1; i < TupleCodec.MAX_DEPTH; ++i )
+        {
+            tuple = Tu(tuple);
+        }
+        Assert.assertEquals(tuple, codec.fromBytes(codec.toBytes(tuple)));
+        try
+        {
+            codec.toBytes(Tu(tuple));
+            Assert.fail();
+        }
+        catch ( IllegalArgumentException ignore )
+        {
+            // expected
+        }
+
+        // deep enough to overflow the stack without the limit
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for ( int i = 0; i < 100000; ++i )
+        {
+            writeVarLong(out, 1);
+            out.write(8);   // tuple
+        }
+        try
+        {
+            codec.fromBytes(out.toByteArray());
+            Assert.fail();
+        }
+        catch ( IllegalArgumentException ignore )
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIntRange()
+    {
+        TupleCodec codec = TupleCodec.standard();
+        Assert.assertEquals(Tu(Integer.MIN_VALUE), codec.fromBytes(intTuple(Integer.MIN_VALUE)));
+        for ( long value : new long[]{Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L, Long.MAX_VALUE} )
+        {
+            try
+            {
+                codec.fromBytes(intTuple(value));
+                Assert.fail();
+            }
+            catch ( IllegalArgumentException ignore )
+            {
+                // expected
+            }
+        }
+    }
+
+    // a single item tuple with the value tagged as an int
+    private static byte[] intTuple(long value)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarLong(out, 1);
+        out.write(3);
+        writeVarLong(out, value);
+        return out.toByteArray();
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value)
+    {
+        long encoded = (value << 1) ^ (value >> 63);
+        while ( (encoded & ~0x7FL) != 0 )
+        {
+            out.write((int)((encoded & 0x7F) | 0x80));
+            encoded >>>= 7;
+        }
+        out.write((int)encoded);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer)
+    {
+        buffer.position(7);
+        return buffer.slice();
+    }
+}
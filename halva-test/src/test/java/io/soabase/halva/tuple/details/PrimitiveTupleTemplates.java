@@ -0,0 +1,45 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple.details;
+
+/**
+ * Templates for the primitive tuples of halva's <code>io.soabase.halva.tuple.details</code> package. The generated
+ * tuples are copied into halva by the build (see the <code>copy-primitive-tuples</code> execution in this module's pom)
+ */
+@SuppressWarnings("unused")
+public class PrimitiveTupleTemplates
+{
+    @PrimitiveTupleTemplate interface IntIntTuple_{int _1(); int _2();}
+    @PrimitiveTupleTemplate interface IntLongTuple_{int _1(); long _2();}
+    @PrimitiveTupleTemplate interface IntDoubleTuple_{int _1(); double _2();}
+    @PrimitiveTupleTemplate interface LongIntTuple_{long _1(); int _2();}
+    @PrimitiveTupleTemplate interface LongLongTuple_{long _1(); long _2();}
+    @PrimitiveTupleTemplate interface LongDoubleTuple_{long _1(); double _2();}
+    @PrimitiveTupleTemplate interface DoubleIntTuple_{double _1(); int _2();}
+    @PrimitiveTupleTemplate interface DoubleLongTuple_{double _1(); long _2();}
+    @PrimitiveTupleTemplate interface DoubleDoubleTuple_{double _1(); double _2();}
+
+    @PrimitiveTupleTemplate interface IntObjTuple_<B>{int _1(); B _2();}
+    @PrimitiveTupleTemplate interface LongObjTuple_<B>{long _1(); B _2();}
+    @PrimitiveTupleTemplate interface DoubleObjTuple_<B>{double _1(); B _2();}
+    @PrimitiveTupleTemplate interface ObjIntTuple_<A>{A _1(); int _2();}
+    @PrimitiveTupleTemplate interface ObjLongTuple_<A>{A _1(); long _2();}
+    @PrimitiveTupleTemplate interface ObjDoubleTuple_<A>{A _1(); double _2();}
+
+    @PrimitiveTupleTemplate interface IntIntIntTuple_{int _1(); int _2(); int _3();}
+    @PrimitiveTupleTemplate interface LongLongLongTuple_{long _1(); long _2(); long _3();}
+    @PrimitiveTupleTemplate interface DoubleDoubleDoubleTuple_{double _1(); double _2(); double _3();}
+}
@@ -90,6 +90,42 @@ public interface Any<T>
         return new AnyConsImpl(null, head, null, tail);
     }
 
+    /**
+     * Return a new AnyListPattern that matches lists that start with the given elements. Each
+     * element can be a value or an Any. Use {@link AnyListPattern#rest(Any)} to bind the remaining elements.
+     *
+     * @param items the first elements of the list
+     * @return new AnyListPattern
+     */
+    static AnyListPattern prefix(Object... items)
+    {
+        return AnyListPattern.prefix(items);
+    }
+
+    /**
+     * Return a new AnyListPattern that matches lists that end with the given elements. Each
+     * element can be a value or an Any. Use {@link AnyListPattern#rest(Any)} to bind the preceding elements.
+     *
+     * @param items the last elements of the list
+     * @return new AnyListPattern
+     */
+    static AnyListPattern suffix(Object... items)
+    {
+        return AnyListPattern.suffix(items);
+    }
+
+    /**
+     * Return a new AnyListPattern that matches lists that have exactly the given elements. Each
+     * element can be a value or an Any.
+     *
+     * @param items the elements of the list
+     * @return new AnyListPattern
+     */
+    static AnyListPattern exactly(Object... items)
+    {
+        return AnyListPattern.exactly(items);
+    }
+
     /**
      * Return a new Any that matches any alias and will hold its value.
      *
@@ -16,12 +16,17 @@
 package io.soabase.halva.any;
 
 import io.soabase.halva.alias.TypeAliasType;
+import io.soabase.halva.any.details.AnyFrame;
 
 class AnyImpl<T extends REAL, REAL> implements Any<T>
 {
+    @SuppressWarnings("unchecked")
+    private static final AnyFrame.Publisher PUBLISHER = (any, value) -> ((AnyImpl<Object, Object>)any).value = value;
+
     private final Class<? super T> rawType;
     private final TypeAliasType<REAL, T> typeAliasType;
     private T value;
+    private boolean framed = false;
 
     AnyImpl()
     {
@@ -34,14 +39,17 @@ class AnyImpl<T extends REAL, REAL> implements Any<T>
         this.typeAliasType = typeAliasType;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public final T val()
     {
-        if ( value == null )
+        // the frame is only searched once this thread has stored a value for this Any in a frame
+        T localValue = framed ? (T)AnyFrame.get(this, value) : value;
+        if ( localValue == null )
         {
             throw new IllegalArgumentException("No value set for: " + this);
         }
-        return value;
+        return localValue;
     }
 
     @Override
@@ -51,7 +59,14 @@ class AnyImpl<T extends REAL, REAL> implements Any<T>
         {
             value = typeAliasType.wrap((T)value);
         }
-        this.value = value;
+        if ( AnyFrame.set(this, value, PUBLISHER) )
+        {
+            framed = true;
+        }
+        else
+        {
+            this.value = value;
+        }
     }
 
     @Override
@@ -65,15 +80,8 @@ class AnyImpl<T extends REAL, REAL> implements Any<T>
                 return typeAliasType.getRealType().getRawType().isAssignableFrom(localRawType);
             }
 
-            try
-            {
-                localRawType.cast(value);
-                return true;
-            }
-            catch ( ClassCastException dummy )
-            {
-                // dummy
-            }
+            // note: this is called for every case that's tried - failing must be cheap (i.e. no exceptions)
+            return (value == null) || boxed(localRawType).isInstance(value);
         }
         return false;
     }
@@ -82,4 +90,45 @@ class AnyImpl<T extends REAL, REAL> implements Any<T>
     {
         return rawType;
     }
+
+    private static Class<?> boxed(Class<?> type)
+    {
+        if ( !type.isPrimitive() )
+        {
+            return type;
+        }
+        if ( type == Integer.TYPE )
+        {
+            return Integer.class;
+        }
+        if ( type == Long.TYPE )
+        {
+            return Long.class;
+        }
+        if ( type == Double.TYPE )
+        {
+            return Double.class;
+        }
+        if ( type == Boolean.TYPE )
+        {
+            return Boolean.class;
+        }
+        if ( type == Character.TYPE )
+        {
+            return Character.class;
+        }
+        if ( type == Float.TYPE )
+        {
+            return Float.class;
+        }
+        if ( type == Short.TYPE )
+        {
+            return Short.class;
+        }
+        if ( type == Byte.TYPE )
+        {
+            return Byte.class;
+        }
+        return Void.class;
+    }
 }
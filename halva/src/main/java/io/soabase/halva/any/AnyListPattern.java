@@ -0,0 +1,171 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.any;
+
+import io.soabase.halva.sugar.ConsList;
+import io.soabase.halva.sugar.Sugar;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Matches several elements of a list at once: the first elements ({@link Any#prefix(Object...)}),
+ * the last elements ({@link Any#suffix(Object...)}) or all the elements ({@link Any#exactly(Object...)}).
+ * Each element of the pattern is either a value or an Any. The remaining elements can be bound via
+ * {@link #rest(Any)}. The elements are compared by index - the remaining elements are only sliced
+ * from the list when they are bound (and, if the rest holder needs to inspect them, when testing).
+ */
+public final class AnyListPattern extends AnyList
+{
+    private enum Kind
+    {
+        PREFIX,
+        SUFFIX,
+        EXACT
+    }
+
+    // slices are always of this class - type-only holders (AnyType, etc.) are tested against it instead of a real slice
+    private static final ConsList<?> EMPTY_SLICE = Sugar.List().slice(0, 0);
+
+    private final Kind kind;
+    private final Object[] items;
+    private final Any rest;
+
+    static AnyListPattern prefix(Object[] items)
+    {
+        return new AnyListPattern(Kind.PREFIX, items, null);
+    }
+
+    static AnyListPattern suffix(Object[] items)
+    {
+        return new AnyListPattern(Kind.SUFFIX, items, null);
+    }
+
+    static AnyListPattern exactly(Object[] items)
+    {
+        return new AnyListPattern(Kind.EXACT, items, null);
+    }
+
+    private AnyListPattern(Kind kind, Object[] items, Any rest)
+    {
+        this.kind = kind;
+        this.items = Arrays.copyOf(items, items.length);
+        this.rest = rest;
+    }
+
+    /**
+     * Return a new pattern that also binds the remaining elements: the elements after the prefix
+     * or the elements before the suffix.
+     *
+     * @param rest holder for the remaining elements
+     * @return new pattern
+     * @throws IllegalStateException if this is an {@link Any#exactly(Object...)} pattern
+     */
+    public AnyListPattern rest(Any<? extends ConsList<?>> rest)
+    {
+        if ( kind == Kind.EXACT )
+        {
+            throw new IllegalStateException("exactly() patterns have no remaining elements");
+        }
+        if ( rest == null )
+        {
+            throw new IllegalArgumentException("rest cannot be null");
+        }
+        return new AnyListPattern(kind, items, rest);
+    }
+
+    @Override
+    public Void val()
+    {
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean canSet(Object value)
+    {
+        if ( !(value instanceof ConsList) )
+        {
+            return false;
+        }
+        ConsList list = (ConsList)value;
+        int size = list.size();
+        if ( (kind == Kind.EXACT) ? (size != items.length) : (size < items.length) )
+        {
+            return false;
+        }
+
+        int offset = offset(size);
+        for ( int i = 0; i < items.length; ++i )
+        {
+            Object item = items[i];
+            Object element = list.get(offset + i);
+            if ( item instanceof Any )
+            {
+                if ( !((Any)item).canSet(element) )
+                {
+                    return false;
+                }
+            }
+            else if ( !Objects.equals(item, element) )
+            {
+                return false;
+            }
+        }
+        if ( rest == null )
+        {
+            return true;
+        }
+        return (rest instanceof AnyImpl) ? rest.canSet(EMPTY_SLICE) : rest.canSet(restOf(list));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void set(Object value)
+    {
+        if ( value instanceof ConsList )
+        {
+            ConsList list = (ConsList)value;
+            int offset = offset(list.size());
+            for ( int i = 0; i < items.length; ++i )
+            {
+                if ( items[i] instanceof Any )
+                {
+                    ((Any)items[i]).set(list.get(offset + i));
+                }
+            }
+            if ( rest != null )
+            {
+                rest.set(restOf(list));
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return kind.name().toLowerCase() + Arrays.toString(items) + ((rest != null) ? (".rest(" + rest + ")") : "");
+    }
+
+    private int offset(int size)
+    {
+        return (kind == Kind.SUFFIX) ? (size - items.length) : 0;
+    }
+
+    private ConsList restOf(ConsList list)
+    {
+        return (kind == Kind.SUFFIX) ? list.slice(0, list.size() - items.length) : list.slice(items.length, list.size());
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.any;
+
+import io.soabase.halva.any.details.AnyFrame;
+
+/**
+ * An unboxed long binder for {@link io.soabase.halva.matcher.LongMatcher}, tuples and case class patterns
+ */
+public class AnyLong extends AnyPrimitive
+{
+    private static final AnyFrame.PrimitivePublisher PUBLISHER = (any, bits) -> ((AnyLong)any).setUnframed(bits);
+
+    private long value;
+    private boolean isSet = false;
+    private boolean framed = false;
+
+    /**
+     * @return the bound value
+     * @throws IllegalArgumentException if no value has been bound
+     */
+    public long val()
+    {
+        if ( framed )
+        {
+            // this thread has stored a value in a frame - the innermost frame that holds it wins
+            long slot = AnyFrame.slot(this);
+            if ( slot >= 0 )
+            {
+                return AnyFrame.primitive(slot);
+            }
+        }
+        if ( !isSet )
+        {
+            throw new IllegalArgumentException("No value set for: " + this);
+        }
+        return value;
+    }
+
+    public void set(long value)
+    {
+        if ( AnyFrame.setPrimitive(this, value, PUBLISHER) )
+        {
+            framed = true;
+        }
+        else
+        {
+            setUnframed(value);
+        }
+    }
+
+    private void setUnframed(long value)
+    {
+        this.value = value;
+        isSet = true;
+    }
+
+    @Override
+    public boolean setBoxed(Object value)
+    {
+        if ( value instanceof Long )
+        {
+            set((Long)value);
+            return true;
+        }
+        return false;
+    }
+}
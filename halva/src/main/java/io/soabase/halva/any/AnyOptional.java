@@ -60,24 +60,17 @@ public abstract class AnyOptional<T> implements Any<T>
     {
         if ( value instanceof Optional )
         {
-            try
+            Optional optional = (Optional)value;
+            if ( optional.isPresent() )
             {
-                Optional optional = (Optional)value;
-                if ( optional.isPresent() )
+                //noinspection SimplifiableIfStatement
+                if ( holder == null )
                 {
-                    //noinspection SimplifiableIfStatement
-                    if ( holder == null )
-                    {
-                        return false;
-                    }
-                    return holder.canSet(optional.get());
+                    return false;
                 }
-                return (this.holder == null);
-            }
-            catch ( ClassCastException dummy )
-            {
-                // dummy
+                return holder.canSet(optional.get());
             }
+            return (this.holder == null);
         }
         return false;
     }
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.any;
+
+/**
+ * Base of the unboxed binders {@link AnyInt}, {@link AnyLong} and {@link AnyDouble}. Tuples and
+ * case class patterns recognize these binders: primitive fields of case classes are bound
+ * directly without boxing. Like {@link Any}, values bound while a reusable matcher (e.g. a Partial)
+ * is evaluating are stored (unboxed) in per-thread frames so the binders can be shared.
+ */
+public abstract class AnyPrimitive
+{
+    AnyPrimitive()
+    {
+    }
+
+    /**
+     * Bind the given boxed value if it is of the binder's type (e.g. an <code>Integer</code> for {@link AnyInt})
+     *
+     * @param value value to bind
+     * @return true if the value was bound
+     */
+    public abstract boolean setBoxed(Object value);
+}
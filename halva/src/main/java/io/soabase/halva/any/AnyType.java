@@ -27,11 +27,22 @@ import static io.soabase.com.google.inject.internal.MoreTypes.canonicalize;
  */
 public abstract class AnyType<T> extends AnyImpl<T, T>
 {
+    // each anonymous subclass has a fixed type argument - resolve it only once per subclass
+    private static final ClassValue<Class<?>> rawTypes = new ClassValue<Class<?>>()
+    {
+        @Override
+        protected Class<?> computeValue(Class<?> type)
+        {
+            return resolveRawType(type);
+        }
+    };
+
     private final Class<? super T> rawType;
 
+    @SuppressWarnings("unchecked")
     protected AnyType()
     {
-        this.rawType = getRawType(getClass());
+        this.rawType = (Class<? super T>)rawTypes.get(getClass());
     }
 
     @Override
@@ -40,8 +51,7 @@ public abstract class AnyType<T> extends AnyImpl<T, T>
         return rawType;
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Class<? super T> getRawType(Class<? extends AnyType> superType)
+    private static Class<?> resolveRawType(Class<?> superType)
     {
         Type superclass = superType.getGenericSuperclass();
         if ( superclass instanceof Class )
@@ -50,6 +60,6 @@ public abstract class AnyType<T> extends AnyImpl<T, T>
         }
         ParameterizedType parameterized = (ParameterizedType) superclass;
         Type type = canonicalize(parameterized.getActualTypeArguments()[0]);
-        return (Class<? super T>)MoreTypes.getRawType(type);
+        return MoreTypes.getRawType(type);
     }
 }
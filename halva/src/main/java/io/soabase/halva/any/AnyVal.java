@@ -15,24 +15,40 @@
  */
 package io.soabase.halva.any;
 
+import io.soabase.halva.any.details.AnyFrame;
+
 public class AnyVal<T> implements Any<T>
 {
+    @SuppressWarnings("unchecked")
+    private static final AnyFrame.Publisher PUBLISHER = (any, value) -> ((AnyVal<Object>)any).value = value;
+
     private T value = null;
+    private boolean framed = false;
 
+    @SuppressWarnings("unchecked")
     @Override
     public T val()
     {
-        if ( value == null )
+        // the frame is only searched once this thread has stored a value for this Any in a frame
+        T localValue = framed ? (T)AnyFrame.get(this, value) : value;
+        if ( localValue == null )
         {
             throw new IllegalArgumentException("No value set for: " + this);
         }
-        return value;
+        return localValue;
     }
 
     @Override
     public void set(T value)
     {
-        this.value = value;
+        if ( AnyFrame.set(this, value, PUBLISHER) )
+        {
+            framed = true;
+        }
+        else
+        {
+            this.value = value;
+        }
     }
 
     @Override
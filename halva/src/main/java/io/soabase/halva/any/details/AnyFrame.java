@@ -0,0 +1,319 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.any.details;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Per-thread, per-evaluation storage for the values of {@link io.soabase.halva.any.Any}s. A reusable matcher
+ *     (e.g. a Partial) shares its Anys between every evaluation. To allow such a matcher to be
+ *     used concurrently (or recursively) each evaluation runs inside a frame: values bound while
+ *     the frame is extracting are stored in the frame rather than in the Any and reads of the Any
+ *     see the value from the innermost frame that holds it. The unboxed binders
+ *     ({@link io.soabase.halva.any.AnyPrimitive}) are stored unboxed in a parallel slot array.
+ * </p>
+ *
+ * <p>
+ *     When a frame exits its values are published to the Anys themselves (via the {@link Publisher}
+ *     given when the value was stored) so that single threaded code that reads an Any after the match
+ *     has completed continues to work.
+ * </p>
+ *
+ * <p>
+ *     Used internally by the matchers and the Anys - it's not part of the public API. Frames are
+ *     reused so entering/exiting does not allocate.
+ * </p>
+ */
+public final class AnyFrame
+{
+    /**
+     * Copies a frame value back into its Any when the frame exits. Anys pass a private
+     * instance so that only the frame can publish to them.
+     */
+    @FunctionalInterface
+    public interface Publisher
+    {
+        void publish(Object any, Object value);
+    }
+
+    /**
+     * The {@link Publisher} for unboxed binders. ints and longs are stored as a long, doubles as their raw long bits.
+     */
+    @FunctionalInterface
+    public interface PrimitivePublisher
+    {
+        void publish(Object any, long bits);
+    }
+
+    private static final Object PRIMITIVE = new Object();
+
+    private static final ThreadLocal<Stack> stack = ThreadLocal.withInitial(Stack::new);
+
+    private static class Frame
+    {
+        private Object[] anys = new Object[8];
+        private Object[] values = new Object[8];
+        private long[] primitives = new long[8];
+        private Object[] publishers = new Object[8];
+        private int size = 0;
+        private boolean extracting = true;
+
+        private int indexOf(Object any)
+        {
+            for ( int i = 0; i < size; ++i )
+            {
+                if ( anys[i] == any )
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int add(Object any, Object value, Object publisher)
+        {
+            if ( size == anys.length )
+            {
+                anys = Arrays.copyOf(anys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                primitives = Arrays.copyOf(primitives, size * 2);
+                publishers = Arrays.copyOf(publishers, size * 2);
+            }
+            anys[size] = any;
+            values[size] = value;
+            publishers[size] = publisher;
+            return size++;
+        }
+
+        private void publishAndClear()
+        {
+            for ( int i = 0; i < size; ++i )
+            {
+                if ( values[i] == PRIMITIVE )
+                {
+                    ((PrimitivePublisher)publishers[i]).publish(anys[i], primitives[i]);
+                }
+                else
+                {
+                    ((Publisher)publishers[i]).publish(anys[i], values[i]);
+                }
+            }
+            clear();
+        }
+
+        private void clear()
+        {
+            for ( int i = 0; i < size; ++i )
+            {
+                anys[i] = null;
+                values[i] = null;
+                publishers[i] = null;
+            }
+            size = 0;
+            extracting = true;
+        }
+    }
+
+    private static class Stack
+    {
+        private Frame[] frames = new Frame[4];
+        private int depth = 0;
+
+        private Frame top()
+        {
+            return (depth > 0) ? frames[depth - 1] : null;
+        }
+    }
+
+    /**
+     * Start a new frame for the current thread. The frame starts in the extracting phase.
+     */
+    public static void enter()
+    {
+        Stack localStack = stack.get();
+        if ( localStack.depth == localStack.frames.length )
+        {
+            localStack.frames = Arrays.copyOf(localStack.frames, localStack.depth * 2);
+        }
+        Frame frame = localStack.frames[localStack.depth];
+        if ( frame == null )
+        {
+            frame = new Frame();
+            localStack.frames[localStack.depth] = frame;
+        }
+        ++localStack.depth;
+    }
+
+    /**
+     * Mark the end of the extracting phase of the current frame. From now on, only Anys
+     * that were bound during extraction are stored in the frame.
+     */
+    public static void matched()
+    {
+        Frame frame = stack.get().top();
+        if ( frame != null )
+        {
+            frame.extracting = false;
+        }
+    }
+
+    /**
+     * Exit the current frame
+     */
+    public static void exit()
+    {
+        Stack localStack = stack.get();
+        if ( localStack.depth == 0 )
+        {
+            throw new IllegalStateException("No frame has been entered");
+        }
+        --localStack.depth;
+        localStack.frames[localStack.depth].publishAndClear();
+    }
+
+    /**
+     * Exit the current frame without publishing its values to the Anys
+     */
+    public static void discard()
+    {
+        Stack localStack = stack.get();
+        if ( localStack.depth == 0 )
+        {
+            throw new IllegalStateException("No frame has been entered");
+        }
+        --localStack.depth;
+        localStack.frames[localStack.depth].clear();
+    }
+
+    /**
+     * Store the value of the given Any in the current frame
+     *
+     * @param any the Any
+     * @param value value to store
+     * @param publisher publishes the value to the Any when the frame exits
+     * @return true if the value was stored, false if the Any should store it itself (no frame or
+     * the Any is not part of the frame)
+     */
+    public static boolean set(Object any, Object value, Publisher publisher)
+    {
+        Frame frame = stack.get().top();
+        if ( frame == null )
+        {
+            return false;
+        }
+        int index = frame.indexOf(any);
+        if ( index >= 0 )
+        {
+            frame.values[index] = value;
+            return true;
+        }
+        if ( frame.extracting )
+        {
+            frame.add(any, value, publisher);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Store the value of the given unboxed binder in the current frame
+     *
+     * @param any the binder
+     * @param bits value to store (see {@link PrimitivePublisher})
+     * @param publisher publishes the value to the binder when the frame exits
+     * @return true if the value was stored, false if the binder should store it itself (no frame or
+     * the binder is not part of the frame)
+     */
+    public static boolean setPrimitive(Object any, long bits, PrimitivePublisher publisher)
+    {
+        Frame frame = stack.get().top();
+        if ( frame == null )
+        {
+            return false;
+        }
+        int index = frame.indexOf(any);
+        if ( (index < 0) && frame.extracting )
+        {
+            index = frame.add(any, PRIMITIVE, publisher);
+        }
+        if ( index >= 0 )
+        {
+            frame.primitives[index] = bits;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return the value of the given Any from the innermost frame that holds it. Anys only
+     * need to call this once {@link #set(Object, Object, Publisher)} has stored a value for them.
+     *
+     * @param any the Any
+     * @param unframedValue value to return if no frame holds the Any
+     * @return value
+     */
+    public static Object get(Object any, Object unframedValue)
+    {
+        Stack localStack = stack.get();
+        for ( int i = localStack.depth - 1; i >= 0; --i )
+        {
+            Frame frame = localStack.frames[i];
+            int index = frame.indexOf(any);
+            if ( index >= 0 )
+            {
+                return frame.values[index];
+            }
+        }
+        return unframedValue;
+    }
+
+    /**
+     * Return the slot of the given unboxed binder in the innermost frame that holds it. Pass the
+     * slot to {@link #primitive(long)} to read the value.
+     *
+     * @param any the binder
+     * @return the slot or -1 if no frame holds the binder
+     */
+    public static long slot(Object any)
+    {
+        Stack localStack = stack.get();
+        for ( int i = localStack.depth - 1; i >= 0; --i )
+        {
+            int index = localStack.frames[i].indexOf(any);
+            if ( index >= 0 )
+            {
+                return ((long)i << 32) | index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the value in the given slot
+     *
+     * @param slot slot from {@link #slot(Object)}
+     * @return the value (see {@link PrimitivePublisher})
+     */
+    public static long primitive(long slot)
+    {
+        return stack.get().frames[(int)(slot >>> 32)].primitives[(int)slot];
+    }
+
+    private AnyFrame()
+    {
+    }
+}
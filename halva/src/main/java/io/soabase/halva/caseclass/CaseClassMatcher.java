@@ -0,0 +1,47 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.caseclass;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface that is the base of a hierarchy of Case Classes/Case Objects. A type-switch
+ * matcher is generated for the Case Classes and Case Objects that extend the interface (and that
+ * are compiled together with it)
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface CaseClassMatcher
+{
+    /**
+     * Suffix for the matcher. i.e. if the interface is "Foo" the matcher is
+     * named "FooMatcher" (or whatever the suffix is)
+     *
+     * @return suffix
+     */
+    String suffix() default "Matcher";
+
+    /**
+     * If a non-empty string, the matcher name is the name of the interface <em>minus</em> the value
+     * of this attribute plus the {@link #suffix()}
+     *
+     * @return string suffix to remove from the interface name
+     */
+    String unsuffix() default "";
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.tuple.ClassTuplable;
+import io.soabase.halva.tuple.ClassTuple;
+import io.soabase.halva.tuple.Tuplable;
+import io.soabase.halva.tuple.Tuple;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A case table that tracks how often each case matches and periodically moves the hottest
+ * cases ahead of colder ones. Only cases that can never match the same value are reordered:
+ * runs of consecutive, guard-free cases that are all distinct literals or all distinct case
+ * class patterns (<code>MyCaseTu(...)</code>). Cases are never moved across other cases or the default.
+ * </p>
+ *
+ * <p>
+ * The disjointness of such cases only holds for plain values and case class values - tuples
+ * and other tuplables are structurally compared to case class patterns. Those values are
+ * always matched against the cases in their declared order.
+ * </p>
+ */
+class AdaptiveCaseTable<ARG> extends CaseTable<ARG>
+{
+    static final int REORDER_INTERVAL = 10000;
+
+    private final List<Getter.Entry<ARG>> countingEntries;
+    private final int[] groups;
+    private final LongAdder[] hits;
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicBoolean isReordering = new AtomicBoolean(false);
+    private volatile CaseTable<ARG> reordered;
+
+    AdaptiveCaseTable(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry)
+    {
+        this(entries, defaultEntry, newHits(entries.size()));
+    }
+
+    private AdaptiveCaseTable(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry, LongAdder[] hits)
+    {
+        super(countingEntries(entries, hits), defaultEntry);
+        this.countingEntries = getEntries();
+        this.groups = buildGroups(entries);
+        this.hits = hits;
+        reordered = this;
+    }
+
+    @Override
+    Object evaluateOnce(ARG arg)
+    {
+        Object result = isDisjointFor(arg) ? reordered.evaluateCases(arg) : evaluateCases(arg);
+        if ( (evaluations.incrementAndGet() % REORDER_INTERVAL) == 0 )
+        {
+            reorder();
+        }
+        return result;
+    }
+
+    /**
+     * @return the cases in the order they are currently tried
+     */
+    List<Getter.Entry<ARG>> currentOrder()
+    {
+        return reordered.getEntries();
+    }
+
+    /**
+     * Recompute the order of the cases from the current hit counts. Called inline by the evaluation
+     * that reaches each {@link #REORDER_INTERVAL} - that caller pays for the sort (which is proportional
+     * to the number of cases). If a reorder is already in progress on another thread this returns
+     * immediately - other threads never block and keep using the current order.
+     */
+    void reorder()
+    {
+        if ( !isReordering.compareAndSet(false, true) )
+        {
+            return;
+        }
+        try
+        {
+            doReorder();
+        }
+        finally
+        {
+            isReordering.set(false);
+        }
+    }
+
+    private void doReorder()
+    {
+        long[] snapshot = new long[hits.length];
+        for ( int i = 0; i < hits.length; ++i )
+        {
+            snapshot[i] = hits[i].sum();
+        }
+
+        List<Integer> order = new ArrayList<>(countingEntries.size());
+        int start = 0;
+        while ( start < countingEntries.size() )
+        {
+            int end = start + 1;
+            if ( groups[start] >= 0 )
+            {
+                while ( (end < countingEntries.size()) && (groups[end] == groups[start]) )
+                {
+                    ++end;
+                }
+            }
+            List<Integer> group = new ArrayList<>(end - start);
+            for ( int i = start; i < end; ++i )
+            {
+                group.add(i);
+            }
+            // stable - cases with equal hits keep their relative order
+            group.sort(Comparator.comparingLong((Integer i) -> snapshot[i]).reversed());
+            order.addAll(group);
+            start = end;
+        }
+
+        List<Getter.Entry<ARG>> reorderedEntries = new ArrayList<>(order.size());
+        order.forEach(i -> reorderedEntries.add(countingEntries.get(i)));
+        if ( !reorderedEntries.equals(reordered.getEntries()) )
+        {
+            reordered = new CaseTable<>(reorderedEntries, getDefaultEntry());
+        }
+    }
+
+    private static boolean isDisjointFor(Object arg)
+    {
+        if ( (arg == null) || (arg instanceof Tuple) || (arg instanceof Any) )
+        {
+            return false;
+        }
+        return (arg instanceof ClassTuplable) || !(arg instanceof Tuplable);
+    }
+
+    private static LongAdder[] newHits(int qty)
+    {
+        LongAdder[] hits = new LongAdder[qty];
+        for ( int i = 0; i < qty; ++i )
+        {
+            hits[i] = new LongAdder();
+        }
+        return hits;
+    }
+
+    private static <ARG> List<Getter.Entry<ARG>> countingEntries(List<Getter.Entry<ARG>> entries, LongAdder[] hits)
+    {
+        List<Getter.Entry<ARG>> counting = new ArrayList<>(entries.size());
+        for ( int i = 0; i < entries.size(); ++i )
+        {
+            Getter.Entry<ARG> entry = entries.get(i);
+            LongAdder entryHits = hits[i];
+            counting.add(new Getter.Entry<>(entry.extracter, () -> {
+                entryHits.increment();
+                return entry.proc.get();
+            }));
+        }
+        return counting;
+    }
+
+    private static <ARG> int[] buildGroups(List<Getter.Entry<ARG>> entries)
+    {
+        // cases in the same group are pairwise disjoint. -1 means the case can't be reordered
+        int[] groups = new int[entries.size()];
+        int group = 0;
+        Class<?> groupKind = null;
+        Set<Object> groupKeys = new HashSet<>();
+        for ( int i = 0; i < entries.size(); ++i )
+        {
+            Object key = disjointKey(entries.get(i));
+            Class<?> kind = (key instanceof Class) ? Class.class : Object.class;
+            if ( key == null )
+            {
+                groups[i] = -1;
+                groupKind = null;
+                continue;
+            }
+            if ( (kind != groupKind) || !groupKeys.add(key) )
+            {
+                ++group;
+                groupKind = kind;
+                groupKeys.clear();
+                groupKeys.add(key);
+            }
+            groups[i] = group;
+        }
+        return groups;
+    }
+
+    private static <ARG> Object disjointKey(Getter.Entry<ARG> entry)
+    {
+        ExtractObject extracter = entry.extracter;
+        if ( extracter.hasGuard() || (extracter.getValues().size() != 1) )
+        {
+            return null;
+        }
+        Object item = extracter.getValues().get(0);
+        if ( item instanceof ClassTuple )
+        {
+            // each case class has its own class tuple class
+            return item.getClass();
+        }
+        return CaseTable.isLiteral(item) ? item : null;
+    }
+}
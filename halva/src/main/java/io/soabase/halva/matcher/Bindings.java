@@ -0,0 +1,79 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.Arrays;
+
+/**
+ * The immutable result of a successful {@link Pattern} extraction - the value of each slot
+ */
+public final class Bindings
+{
+    private final Object[] slots;
+
+    Bindings(Object[] slots)
+    {
+        this.slots = slots;
+    }
+
+    /**
+     * Return the value of the given slot
+     *
+     * @param index slot index
+     * @return value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index)
+    {
+        return (T)slots[index];
+    }
+
+    /**
+     * @return number of slots
+     */
+    public int size()
+    {
+        return slots.length;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( (o == null) || (getClass() != o.getClass()) )
+        {
+            return false;
+        }
+
+        Bindings bindings = (Bindings)o;
+        return Arrays.equals(slots, bindings.slots);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(slots);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Bindings" + Arrays.toString(slots);
+    }
+}
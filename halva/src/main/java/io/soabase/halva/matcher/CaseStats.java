@@ -0,0 +1,103 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the statistics of one case of an {@link InstrumentedMatch}
+ */
+public final class CaseStats
+{
+    private final int index;
+    private final String pattern;
+    private final long attempts;
+    private final long matches;
+    private final long guardFailures;
+    private final long extractNanos;
+
+    @ConstructorProperties({"index", "pattern", "attempts", "matches", "guardFailures", "extractNanos"})
+    public CaseStats(int index, String pattern, long attempts, long matches, long guardFailures, long extractNanos)
+    {
+        this.index = index;
+        this.pattern = pattern;
+        this.attempts = attempts;
+        this.matches = matches;
+        this.guardFailures = guardFailures;
+        this.extractNanos = extractNanos;
+    }
+
+    /**
+     * @return zero based index of the case in the order it was declared
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * @return description of the case's pattern
+     */
+    public String getPattern()
+    {
+        return pattern;
+    }
+
+    /**
+     * @return number of times the case was tried
+     */
+    public long getAttempts()
+    {
+        return attempts;
+    }
+
+    /**
+     * @return number of times the case matched (including its guard)
+     */
+    public long getMatches()
+    {
+        return matches;
+    }
+
+    /**
+     * @return number of times the case's pattern matched but its guard returned false
+     */
+    public long getGuardFailures()
+    {
+        return guardFailures;
+    }
+
+    /**
+     * @return cumulative time spent extracting the case's pattern and running its guard
+     */
+    public long getExtractNanos()
+    {
+        return extractNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CaseStats{" +
+            "index=" + index +
+            ", pattern='" + pattern + '\'' +
+            ", attempts=" + attempts +
+            ", matches=" + matches +
+            ", guardFailures=" + guardFailures +
+            ", extractNanos=" + extractNanos +
+            '}';
+    }
+}
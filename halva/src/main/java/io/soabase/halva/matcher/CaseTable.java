@@ -0,0 +1,474 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.details.AnyFrame;
+import io.soabase.halva.tuple.ClassTuplable;
+import io.soabase.halva.tuple.Tuplable;
+import io.soabase.halva.tuple.Tuple;
+import io.soabase.halva.tuple.details.TupleMemo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable snapshot of a set of cases. Once built, a table can be
+ * evaluated any number of times without re-registering the cases.
+ * <p>
+ * Cases that are single case class patterns (e.g. <code>MyCaseTu(...)</code>) are indexed
+ * by their class tuple class. When the value being matched is a case class, only the cases
+ * that can possibly apply to it are tried (in their original order).
+ * <p>
+ * Runs of consecutive, guard-free literal cases (e.g. <code>caseOf("GET", ...)</code>,
+ * <code>caseOf(404, ...)</code> or enum constants) are collapsed into a hash lookup that is
+ * used when the value being matched is a plain value (not a tuple, case class or any).
+ */
+class CaseTable<ARG>
+{
+    static final Object NO_MATCH = new Object();
+
+    // shorter runs of literals are faster to compare one-by-one
+    private static final int MIN_LITERAL_RUN = 4;
+
+    private static class LiteralRun
+    {
+        private final Map<Object, Integer> indexes;
+        private final int end;
+
+        private LiteralRun(Map<Object, Integer> indexes, int end)
+        {
+            this.indexes = indexes;
+            this.end = end;
+        }
+    }
+
+    private final List<Getter.Entry<ARG>> entries;
+    private final List<Getter.Entry<ARG>> unclassedEntries;
+    private final Map<Class<?>, List<Getter.Entry<ARG>>> entriesByClass = new ConcurrentHashMap<>();
+    private final Getter.Entry<ARG> defaultEntry;
+    private final LiteralRun[] literalRuns;
+    private final DecisionTree<ARG> decisionTree;
+    private final StatsCollector stats;
+
+    CaseTable(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry)
+    {
+        this(entries, defaultEntry, false, null);
+    }
+
+    private CaseTable(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry, boolean decisionTree, StatsCollector stats)
+    {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        this.unclassedEntries = Collections.unmodifiableList(entries.stream()
+            .filter(entry -> entry.classTupleClass == null)
+            .collect(Collectors.toList()));
+        this.defaultEntry = defaultEntry;
+        this.literalRuns = buildLiteralRuns(unclassedEntries);
+        this.decisionTree = decisionTree ? new DecisionTree<>(this.entries, defaultEntry) : null;
+        this.stats = stats;
+    }
+
+    /**
+     * Return a table for the same cases that is built according to the given options
+     *
+     * @param options compile options
+     * @return table
+     */
+    CaseTable<ARG> withOptions(Set<CompileOption> options)
+    {
+        boolean decisionTree = options.contains(CompileOption.DECISION_TREE);
+        if ( options.contains(CompileOption.ADAPTIVE) )
+        {
+            if ( decisionTree )
+            {
+                throw new IllegalArgumentException("ADAPTIVE cannot be combined with DECISION_TREE");
+            }
+            return new AdaptiveCaseTable<>(entries, defaultEntry);
+        }
+        if ( decisionTree == (this.decisionTree != null) )
+        {
+            return this;
+        }
+        return new CaseTable<>(entries, defaultEntry, decisionTree, stats);
+    }
+
+    /**
+     * Return a table for the same cases that records statistics into a new collector. Instrumented
+     * tables try each case in order so that the attempt counts reflect the declared cases.
+     *
+     * @param name name of the statistics
+     * @return table
+     */
+    CaseTable<ARG> instrumented(String name)
+    {
+        return new CaseTable<>(entries, defaultEntry, false, new StatsCollector(name, entries));
+    }
+
+    List<Getter.Entry<ARG>> getEntries()
+    {
+        return entries;
+    }
+
+    Getter.Entry<ARG> getDefaultEntry()
+    {
+        return defaultEntry;
+    }
+
+    StatsCollector getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * Evaluate the cases against the given value. The evaluation runs in its own
+     * {@link AnyFrame} so that a table can be evaluated concurrently and re-entrantly. If the
+     * matching proc returns {@link Matcher#recur(Object)} the cases are evaluated again against
+     * the new value in a loop.
+     *
+     * @param arg value to match
+     * @return the result of the matching proc or {@link #NO_MATCH}
+     */
+    final Object evaluate(ARG arg)
+    {
+        Trampoline trampoline = Trampoline.enter();
+        try
+        {
+            Object result = evaluateOnce(arg);
+            while ( trampoline.isPending() )
+            {
+                result = evaluateOnce(trampoline.next());
+            }
+            return result;
+        }
+        finally
+        {
+            trampoline.exit();
+        }
+    }
+
+    Object evaluateOnce(ARG arg)
+    {
+        return evaluateCases(arg);
+    }
+
+    final Object evaluateCases(ARG arg)
+    {
+        if ( decisionTree != null )
+        {
+            return decisionTree.evaluate(arg);
+        }
+
+        AnyFrame.enter();
+        try
+        {
+            if ( stats != null )
+            {
+                return evaluateInstrumented(arg);
+            }
+            if ( (literalRuns != null) && isPlainValue(arg) )
+            {
+                return evaluate(unclassedEntries, literalRuns, defaultEntry, arg, true);
+            }
+            return evaluate(candidates(arg), null, defaultEntry, arg, true);
+        }
+        finally
+        {
+            AnyFrame.exit();
+        }
+    }
+
+    /**
+     * Return true if a case (or the default) would match the given value. No proc is executed
+     * and no values are published to the Anys - however guards are evaluated.
+     *
+     * @param arg value to test
+     * @return true/false
+     */
+    boolean isDefinedAt(ARG arg)
+    {
+        if ( defaultEntry != null )
+        {
+            return true;
+        }
+
+        AnyFrame.enter();
+        try
+        {
+            TupleMemo.enter();
+            try
+            {
+                List<Getter.Entry<ARG>> candidates = candidates(arg);
+                for ( int i = 0; i < candidates.size(); ++i )
+                {
+                    if ( candidates.get(i).extracter.extract(arg) )
+                    {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            finally
+            {
+                TupleMemo.exit();
+            }
+        }
+        finally
+        {
+            AnyFrame.discard();
+        }
+    }
+
+    <T> Optional<T> getOpt(ARG arg)
+    {
+        return toOptional(evaluate(arg));
+    }
+
+    private Object evaluateInstrumented(ARG arg)
+    {
+        stats.recordEvaluation();
+        TupleMemo.enter();
+        try
+        {
+            for ( int i = 0; i < entries.size(); ++i )
+            {
+                Getter.Entry<ARG> entry = entries.get(i);
+                long start = System.nanoTime();
+                boolean extracted = entry.extracter.getValues().extract(arg);
+                boolean matched = extracted && entry.extracter.guardPasses();
+                stats.counters(i).record(extracted, matched, System.nanoTime() - start);
+                if ( matched )
+                {
+                    return runProc(entry, true);
+                }
+            }
+        }
+        finally
+        {
+            TupleMemo.exit();
+        }
+        if ( defaultEntry != null )
+        {
+            stats.recordDefaultMatch();
+            return runProc(defaultEntry, true);
+        }
+        stats.recordNoMatch();
+        return NO_MATCH;
+    }
+
+    private List<Getter.Entry<ARG>> candidates(ARG arg)
+    {
+        if ( unclassedEntries.size() == entries.size() )
+        {
+            return entries;
+        }
+
+        if ( (arg instanceof ClassTuplable) && !(arg instanceof Tuple) )
+        {
+            Class<?> clazz = ((ClassTuplable)arg).getClassTuplableClass();
+            if ( clazz != null )
+            {
+                List<Getter.Entry<ARG>> classEntries = entriesByClass.get(clazz);
+                if ( classEntries == null )
+                {
+                    classEntries = entriesByClass.computeIfAbsent(clazz, this::buildClassEntries);
+                }
+                return classEntries;
+            }
+        }
+
+        // a case class pattern can never match values that are not tuples, tuplables or anys
+        if ( !(arg instanceof Tuplable) && !(arg instanceof Tuple) && !(arg instanceof Any) )
+        {
+            return unclassedEntries;
+        }
+
+        return entries;
+    }
+
+    private List<Getter.Entry<ARG>> buildClassEntries(Class<?> clazz)
+    {
+        return Collections.unmodifiableList(entries.stream()
+            .filter(entry -> {
+                Class<?> classTupleClass = entry.classTupleClass;
+                return (classTupleClass == null) || classTupleClass.isAssignableFrom(clazz);
+            })
+            .collect(Collectors.toList()));
+    }
+
+    private static boolean isPlainValue(Object arg)
+    {
+        return (arg != null) && !(arg instanceof Tuplable) && !(arg instanceof Tuple) && !(arg instanceof Any);
+    }
+
+    static boolean isLiteral(Object item)
+    {
+        // the equals() of these is symmetric, consistent with hashCode() and false for any other class
+        return (item instanceof String)
+            || (item instanceof Integer)
+            || (item instanceof Long)
+            || (item instanceof Short)
+            || (item instanceof Byte)
+            || (item instanceof Character)
+            || (item instanceof Boolean)
+            || (item instanceof Double)
+            || (item instanceof Float)
+            || (item instanceof Enum);
+    }
+
+    private static <ARG> Object getLiteral(Getter.Entry<ARG> entry)
+    {
+        ExtractObject extracter = entry.extracter;
+        if ( extracter.hasGuard() || (extracter.getValues().size() != 1) )
+        {
+            return null;
+        }
+        Object item = extracter.getValues().get(0);
+        return isLiteral(item) ? item : null;
+    }
+
+    private static <ARG> LiteralRun[] buildLiteralRuns(List<Getter.Entry<ARG>> entries)
+    {
+        LiteralRun[] runs = new LiteralRun[entries.size()];
+        boolean hasRuns = false;
+        int i = 0;
+        while ( i < entries.size() )
+        {
+            int end = i;
+            while ( (end < entries.size()) && (getLiteral(entries.get(end)) != null) )
+            {
+                ++end;
+            }
+            if ( (end - i) >= MIN_LITERAL_RUN )
+            {
+                Map<Object, Integer> indexes = new HashMap<>();
+                for ( int j = i; j < end; ++j )
+                {
+                    // first match wins
+                    indexes.putIfAbsent(getLiteral(entries.get(j)), j);
+                }
+                runs[i] = new LiteralRun(indexes, end);
+                hasRuns = true;
+            }
+            i = Math.max(end, i + 1);
+        }
+        return hasRuns ? runs : null;
+    }
+
+    // NOTE: this is the innermost loop of every match - it must not allocate
+    static <ARG> Object evaluate(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry, ARG arg, boolean framed)
+    {
+        Trampoline trampoline = Trampoline.enter();
+        try
+        {
+            Object result = evaluate(entries, null, defaultEntry, arg, framed);
+            while ( trampoline.isPending() )
+            {
+                result = evaluate(entries, null, defaultEntry, trampoline.next(), framed);
+            }
+            return result;
+        }
+        finally
+        {
+            trampoline.exit();
+        }
+    }
+
+    private static <ARG> Object evaluate(List<Getter.Entry<ARG>> entries, LiteralRun[] literalRuns, Getter.Entry<ARG> defaultEntry, ARG arg, boolean framed)
+    {
+        // every case is extracted from the same value - deconstruct case classes only once
+        TupleMemo.enter();
+        try
+        {
+            int i = 0;
+            while ( i < entries.size() )
+            {
+                LiteralRun literalRun = (literalRuns != null) ? literalRuns[i] : null;
+                if ( literalRun != null )
+                {
+                    // a literal can only equal a value of its own class - other plain values skip the run
+                    Integer index = isLiteral(arg) ? literalRun.indexes.get(arg) : null;
+                    if ( index != null )
+                    {
+                        return runProc(entries.get(index), framed);
+                    }
+                    i = literalRun.end;
+                    continue;
+                }
+
+                Getter.Entry<ARG> entry = entries.get(i);
+                if ( entry.extracter.extract(arg) )
+                {
+                    return runProc(entry, framed);
+                }
+                ++i;
+            }
+        }
+        finally
+        {
+            TupleMemo.exit();
+        }
+        if ( defaultEntry != null )
+        {
+            return runProc(defaultEntry, framed);
+        }
+        return NO_MATCH;
+    }
+
+    static <ARG> Object runProc(Getter.Entry<ARG> entry, boolean framed)
+    {
+        if ( framed )
+        {
+            AnyFrame.matched();
+        }
+        return entry.proc.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Optional<T> toOptional(Object result)
+    {
+        return (result != NO_MATCH) ? Optional.ofNullable((T)result) : Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T getOrThrow(Object result, Object arg)
+    {
+        if ( (result == NO_MATCH) || (result == null) )
+        {
+            throw noMatchError(arg);
+        }
+        return (T)result;
+    }
+
+    static void checkMatched(Object result, Object arg)
+    {
+        // unlike getOrThrow() a null result (e.g. from a unit case) is a match
+        if ( result == NO_MATCH )
+        {
+            throw noMatchError(arg);
+        }
+    }
+
+    static MatchError noMatchError(Object arg)
+    {
+        return new MatchError("No matches found and no default provided for: " + arg);
+    }
+}
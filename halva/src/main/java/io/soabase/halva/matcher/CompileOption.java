@@ -0,0 +1,38 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+/**
+ * Options for {@link Matcher#compile(Partial, CompileOption...)}
+ */
+public enum CompileOption
+{
+    /**
+     * Compile the case patterns into a decision DAG. Sub-patterns that are shared between
+     * cases (e.g. the same case class or literal at the same position) are tested at most
+     * once per match and nested case class values are decomposed at most once. Matching
+     * semantics (first match wins, bindings, guards) are identical to the uncompiled cases.
+     */
+    DECISION_TREE,
+
+    /**
+     * Track how often each case matches and periodically move the hottest cases ahead of colder
+     * ones. Only cases that can never match the same value are reordered: runs of consecutive,
+     * guard-free cases that are distinct literals or distinct case class patterns. Cases are never
+     * moved across other cases or the default case. Cannot be combined with {@link #DECISION_TREE}.
+     */
+    ADAPTIVE
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A pattern matcher whose cases are built once and can then be applied to any
+ * number of values. The case table is immutable so a CompiledMatch can be held
+ * in a static field and shared. Create instances via {@link Matcher#compile(Partial, CompileOption...)}
+ */
+public interface CompiledMatch<ARG, T> extends Function<ARG, T>
+{
+    /**
+     * Process the cases against the given value and return the match
+     *
+     * @param arg value to match against
+     * @return the match
+     * @throws MatchError if there are no matches or the matching case returns null - the same as <code>match(arg)...get()</code>
+     */
+    @Override
+    T apply(ARG arg);
+
+    /**
+     * Process the cases against the given value and return the match
+     *
+     * @param arg value to match against
+     * @return Optional of the match. If the optional is empty, there is no match
+     */
+    Optional<T> applyOpt(ARG arg);
+
+    /**
+     * Process the cases against the given value and run the matching case's proc - the same as
+     * <code>match(arg)...apply()</code>. Unlike {@link #apply(Object)} a case that returns null (e.g. a unit case)
+     * is allowed.
+     *
+     * @param arg value to match against
+     * @throws MatchError if there are no matches
+     */
+    void applyUnit(ARG arg);
+
+    /**
+     * Process the cases against the value of the given stage when it completes. The cases are
+     * evaluated on the thread that completes the stage - nothing blocks. If there is no match (or the
+     * matching case returns null) the returned stage completes exceptionally with a {@link MatchError}.
+     * Use {@link #applyAsyncUnit(CompletionStage)} for cases that are run for their side effects.
+     *
+     * @param stage stage that produces the value to match
+     * @return stage of the match
+     */
+    default CompletionStage<T> applyAsync(CompletionStage<? extends ARG> stage)
+    {
+        return stage.thenApply(this);
+    }
+
+    /**
+     * Same as {@link #applyAsync(CompletionStage)} but the cases are evaluated using the given executor
+     *
+     * @param stage stage that produces the value to match
+     * @param executor executor to use
+     * @return stage of the match
+     */
+    default CompletionStage<T> applyAsync(CompletionStage<? extends ARG> stage, Executor executor)
+    {
+        return stage.thenApplyAsync(this, executor);
+    }
+
+    /**
+     * Process the cases against the value of the given stage when it completes via {@link #applyUnit(Object)}
+     *
+     * @param stage stage that produces the value to match
+     * @return stage that completes when the proc has run
+     */
+    default CompletionStage<Void> applyAsyncUnit(CompletionStage<? extends ARG> stage)
+    {
+        return stage.thenAccept(this::applyUnit);
+    }
+
+    /**
+     * Same as {@link #applyAsyncUnit(CompletionStage)} but the cases are evaluated using the given executor
+     *
+     * @param stage stage that produces the value to match
+     * @param executor executor to use
+     * @return stage that completes when the proc has run
+     */
+    default CompletionStage<Void> applyAsyncUnit(CompletionStage<? extends ARG> stage, Executor executor)
+    {
+        return stage.thenAcceptAsync(this::applyUnit, executor);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.Optional;
+
+class CompiledMatchImpl<ARG, T> implements CompiledMatch<ARG, T>
+{
+    private final CaseTable<ARG> table;
+
+    CompiledMatchImpl(CaseTable<ARG> table)
+    {
+        this.table = table;
+    }
+
+    @Override
+    public T apply(ARG arg)
+    {
+        // same as Matcher.get() - a null result is treated as no match
+        return CaseTable.getOrThrow(table.evaluate(arg), arg);
+    }
+
+    @Override
+    public void applyUnit(ARG arg)
+    {
+        CaseTable.checkMatched(table.evaluate(arg), arg);
+    }
+
+    @Override
+    public Optional<T> applyOpt(ARG arg)
+    {
+        return table.getOpt(arg);
+    }
+}
@@ -0,0 +1,533 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+import io.soabase.halva.any.details.AnyFrame;
+import io.soabase.halva.any.AnyPrimitive;
+import io.soabase.halva.tuple.ClassTuplable;
+import io.soabase.halva.tuple.ClassTuple;
+import io.soabase.halva.tuple.Tuplable;
+import io.soabase.halva.tuple.Tuple;
+import io.soabase.halva.tuple.details.TupleMemo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * The cases of a table compiled into a decision DAG. Each case pattern is flattened into a
+ * sequence of tests against "accesses" - the matched value, an item of a tuple inside of it,
+ * the tuple of a case class inside of it, etc. Tests and accesses are shared between all cases
+ * so that, during a single match, every sub-component of the value is decomposed at most once
+ * and every distinct test (a case class check, a literal compare, a binding check) is run at most once.
+ * </p>
+ *
+ * <p>
+ * The semantics are exactly those of {@link Tuple#extract(Object)}: cases are tried in order,
+ * the first match wins and guards run after the case's values are bound. Values that the
+ * DAG was not compiled for (e.g. a scrutinee that contains {@link Any}s or a tuple where a literal
+ * was expected) and patterns that cannot be flattened fall back to the original extraction
+ * for the case in question. Unlike the original extraction, only the matching case binds its
+ * values.
+ * </p>
+ */
+class DecisionTree<ARG>
+{
+    // test results - tuple shape tests return one of the branch values
+    private static final byte UNKNOWN = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte FALLBACK = 3;
+    private static final byte ITEMS = 4;
+    private static final byte CLASS_TUPLE = 5;
+    private static final byte TUPLE_OF = 6;
+    private static final byte ELEMENT = 7;
+
+    private static final Object NOT_COMPUTED = new Object();
+    private static final int ROOT = 0;
+    private static final int TUPLE_OF_INDEX = -1;
+
+    private final List<Getter.Entry<ARG>> entries;
+    private final Getter.Entry<ARG> defaultEntry;
+    private final Program[] programs;
+    private final Access[] accesses;
+    private final Test[] tests;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    DecisionTree(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry)
+    {
+        this.entries = entries;
+        this.defaultEntry = defaultEntry;
+
+        Compiler compiler = new Compiler();
+        programs = new Program[entries.size()];
+        for ( int i = 0; i < entries.size(); ++i )
+        {
+            programs[i] = compiler.compile(entries.get(i).extracter.getValues());
+        }
+        accesses = compiler.accesses.toArray(new Access[compiler.accesses.size()]);
+        tests = compiler.tests.toArray(new Test[compiler.tests.size()]);
+    }
+
+    /**
+     * Evaluate the cases against the given value in a new {@link AnyFrame}
+     *
+     * @param arg value to match
+     * @return the result of the matching proc or {@link CaseTable#NO_MATCH}
+     */
+    Object evaluate(ARG arg)
+    {
+        Scratch scratch = this.scratch.get();
+        if ( scratch.inUse )
+        {
+            // a guard is matching against this tree
+            scratch = new Scratch();
+        }
+
+        AnyFrame.enter();
+        try
+        {
+            Getter.Entry<ARG> matched = defaultEntry;
+            scratch.begin(arg);
+            TupleMemo.enter();
+            try
+            {
+                for ( int i = 0; i < programs.length; ++i )
+                {
+                    if ( matches(i, scratch, arg) )
+                    {
+                        matched = entries.get(i);
+                        break;
+                    }
+                }
+            }
+            finally
+            {
+                TupleMemo.exit();
+                scratch.end();
+            }
+            return (matched != null) ? CaseTable.runProc(matched, true) : CaseTable.NO_MATCH;
+        }
+        finally
+        {
+            AnyFrame.exit();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean matches(int index, Scratch scratch, ARG arg)
+    {
+        ExtractObject extracter = entries.get(index).extracter;
+        Program program = programs[index];
+        if ( program == null )
+        {
+            return extracter.extract(arg);
+        }
+
+        for ( Step step : program.steps )
+        {
+            byte result = ((step.notSame != null) && (scratch.value(tests[step.test].access) == step.notSame)) ? FALLBACK : scratch.result(step.test);
+            if ( result != step.expected )
+            {
+                return (result != FALSE) && extracter.extract(arg);
+            }
+        }
+        for ( int i = 0; i < program.binders.length; ++i )
+        {
+            ((Any<Object>)program.binders[i]).set(scratch.value(program.binderAccesses[i]));
+        }
+        return extracter.guardPasses();
+    }
+
+    private static byte classify(Object value, Class<?> tupleClass, int size, boolean classTupleItem)
+    {
+        // mirrors the checks made by TupleImpl when extracting a tuple pattern from a value
+        if ( (value == null) || (value instanceof Any) )
+        {
+            return FALLBACK;
+        }
+        if ( value.getClass() == tupleClass )
+        {
+            return ITEMS;
+        }
+        if ( value instanceof Tuple )
+        {
+            // tuples of other classes (Pair, primitive tuples, etc.) are compared item by item if they're the same size
+            return FALLBACK;
+        }
+        if ( classTupleItem && (value instanceof ClassTuplable) )
+        {
+            return CLASS_TUPLE;
+        }
+        if ( value instanceof Tuplable )
+        {
+            return TUPLE_OF;
+        }
+        if ( size != 1 )
+        {
+            return FALSE;
+        }
+        // a class tuple can only be equal to a plain value if the value is the class tuple itself - which is a tuplable
+        return (classTupleItem && !(value instanceof Tuple)) ? FALSE : ELEMENT;
+    }
+
+    private static byte compareToTuple(Object item, Tuple value)
+    {
+        // mirrors TupleImpl: a tuple value is compared to a non-tuple item by extracting
+        // the item from the tuple - which can only succeed for single item tuples or tuplable items
+        return ((value.size() != 1) && !(item instanceof Tuplable)) ? FALSE : FALLBACK;
+    }
+
+    private static class Access
+    {
+        final int parent;
+        final int index;
+
+        Access(int parent, int index)
+        {
+            this.parent = parent;
+            this.index = index;
+        }
+    }
+
+    private static abstract class Test
+    {
+        final int access;
+
+        Test(int access)
+        {
+            this.access = access;
+        }
+
+        abstract byte test(Object value);
+    }
+
+    private static class Step
+    {
+        final int test;
+        final byte expected;
+        final Object notSame;
+
+        Step(int test, byte expected, Object notSame)
+        {
+            this.test = test;
+            this.expected = expected;
+            this.notSame = notSame;
+        }
+    }
+
+    private static class Program
+    {
+        final Step[] steps;
+        final Any<?>[] binders;
+        final int[] binderAccesses;
+
+        Program(Step[] steps, Any<?>[] binders, int[] binderAccesses)
+        {
+            this.steps = steps;
+            this.binders = binders;
+            this.binderAccesses = binderAccesses;
+        }
+    }
+
+    private class Scratch
+    {
+        final Object[] values = new Object[accesses.length];
+        final byte[] results = new byte[tests.length];
+        boolean inUse = false;
+
+        void begin(Object arg)
+        {
+            inUse = true;
+            Arrays.fill(values, NOT_COMPUTED);
+            Arrays.fill(results, UNKNOWN);
+            values[ROOT] = arg;
+        }
+
+        void end()
+        {
+            Arrays.fill(values, null);
+            inUse = false;
+        }
+
+        Object value(int index)
+        {
+            Object value = values[index];
+            if ( value == NOT_COMPUTED )
+            {
+                Access access = accesses[index];
+                Object parent = value(access.parent);
+                value = (access.index == TUPLE_OF_INDEX) ? ((Tuplable)parent).tuple() : ((Tuple)parent).get(access.index);
+                values[index] = value;
+            }
+            return value;
+        }
+
+        byte result(int index)
+        {
+            byte result = results[index];
+            if ( result == UNKNOWN )
+            {
+                Test test = tests[index];
+                result = test.test(value(test.access));
+                results[index] = result;
+            }
+            return result;
+        }
+    }
+
+    private static class Compiler
+    {
+        final List<Access> accesses = new ArrayList<>();
+        final List<Test> tests = new ArrayList<>();
+        private final Map<List<Object>, Integer> accessIds = new HashMap<>();
+        private final Map<List<Object>, Integer> testIds = new HashMap<>();
+        private final List<Step> steps = new ArrayList<>();
+        private final List<Any<?>> binders = new ArrayList<>();
+        private final List<Integer> binderAccesses = new ArrayList<>();
+
+        Compiler()
+        {
+            accesses.add(new Access(-1, 0));    // ROOT
+        }
+
+        Program compile(Tuple pattern)
+        {
+            steps.clear();
+            binders.clear();
+            binderAccesses.clear();
+            if ( !compileTuple(ROOT, pattern, expectedBranch(pattern)) )
+            {
+                return null;
+            }
+            return new Program(steps.toArray(new Step[steps.size()]), binders.toArray(new Any<?>[binders.size()]), binderAccesses.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private boolean compileTuple(int access, Tuple pattern, byte expected)
+        {
+            boolean classTupleItem = (pattern.size() == 1) && (pattern.get(0) instanceof ClassTuple);
+            Class<?> tupleClass = pattern.getClass();
+            int size = pattern.size();
+            int test = test(Arrays.asList("shape", access, tupleClass, size, classTupleItem), () -> new Test(access)
+            {
+                @Override
+                byte test(Object value)
+                {
+                    return classify(value, tupleClass, size, classTupleItem);
+                }
+            });
+            steps.add(new Step(test, expected, pattern));
+
+            switch ( expected )
+            {
+                case ITEMS:
+                {
+                    for ( int i = 0; i < size; ++i )
+                    {
+                        if ( !compileItem(access(access, i), pattern.get(i)) )
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                case CLASS_TUPLE:
+                {
+                    return compileClassTuple(access, (ClassTuple)pattern.get(0));
+                }
+
+                case TUPLE_OF:
+                {
+                    return compileTuple(access(access, TUPLE_OF_INDEX), pattern, ITEMS);
+                }
+
+                case ELEMENT:
+                {
+                    return compileItem(access, pattern.get(0));
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean compileItem(int access, Object item)
+        {
+            // primitive binders are bound as they are extracted - not supported by the tree
+            if ( (item == null) || (item instanceof AnyPrimitive) )
+            {
+                return false;
+            }
+
+            if ( item instanceof Any )
+            {
+                Any<Object> any = (Any<Object>)item;
+                step(test(Arrays.asList("any", access, new Identity(any)), () -> new Test(access)
+                {
+                    @Override
+                    byte test(Object value)
+                    {
+                        if ( value instanceof Any )
+                        {
+                            return FALLBACK;
+                        }
+                        return any.canSet(value) ? TRUE : FALSE;
+                    }
+                }));
+                binders.add(any);
+                binderAccesses.add(access);
+                return true;
+            }
+
+            if ( item instanceof Tuple )
+            {
+                return compileTuple(access, (Tuple)item, expectedBranch((Tuple)item));
+            }
+
+            if ( item instanceof Predicate )
+            {
+                Predicate<Object> predicate = (Predicate<Object>)item;
+                step(test(Arrays.asList("predicate", access, new Identity(predicate)), () -> new Test(access)
+                {
+                    @Override
+                    byte test(Object value)
+                    {
+                        if ( value instanceof Any )
+                        {
+                            return FALLBACK;
+                        }
+                        if ( value instanceof Tuple )
+                        {
+                            return compareToTuple(predicate, (Tuple)value);
+                        }
+                        return predicate.test(value) ? TRUE : FALSE;
+                    }
+                }));
+                return true;
+            }
+
+            if ( item instanceof ClassTuple )
+            {
+                return compileClassTuple(access, (ClassTuple)item);
+            }
+
+            step(test(Arrays.asList("equals", access, item), () -> new Test(access)
+            {
+                @Override
+                byte test(Object value)
+                {
+                    if ( value instanceof Any )
+                    {
+                        return FALLBACK;
+                    }
+                    if ( value instanceof Tuple )
+                    {
+                        return compareToTuple(item, (Tuple)value);
+                    }
+                    return item.equals(value) ? TRUE : FALSE;
+                }
+            }));
+            return true;
+        }
+
+        private boolean compileClassTuple(int access, ClassTuple classTuple)
+        {
+            Class<?> classTupleClass = classTuple.getClass();
+            step(test(Arrays.asList("class", access, classTupleClass), () -> new Test(access)
+            {
+                @Override
+                byte test(Object value)
+                {
+                    if ( (value instanceof Any) || (value instanceof Tuple) )
+                    {
+                        return FALLBACK;
+                    }
+                    if ( value instanceof ClassTuplable )
+                    {
+                        return classTupleClass.isAssignableFrom(((ClassTuplable)value).getClassTuplableClass()) ? TRUE : FALSE;
+                    }
+                    // a class tuple compared to a value that isn't a case class is an identity check
+                    return (value instanceof ClassTuple) ? FALLBACK : FALSE;
+                }
+            }));
+
+            Tuple resolved = classTuple.tuple();
+            if ( resolved == null )
+            {
+                return false;
+            }
+            boolean classTupleItem = (resolved.size() == 1) && (resolved.get(0) instanceof ClassTuple);
+            return compileTuple(access, resolved, classTupleItem ? CLASS_TUPLE : TUPLE_OF);
+        }
+
+        private byte expectedBranch(Tuple pattern)
+        {
+            if ( pattern.size() == 1 )
+            {
+                return (pattern.get(0) instanceof ClassTuple) ? CLASS_TUPLE : ELEMENT;
+            }
+            return ITEMS;
+        }
+
+        private void step(int test)
+        {
+            steps.add(new Step(test, TRUE, null));
+        }
+
+        private int access(int parent, int index)
+        {
+            return accessIds.computeIfAbsent(Arrays.asList(parent, index), key -> {
+                accesses.add(new Access(parent, index));
+                return accesses.size() - 1;
+            });
+        }
+
+        private int test(List<Object> key, Supplier<Test> testSupplier)
+        {
+            return testIds.computeIfAbsent(key, k -> {
+                tests.add(testSupplier.get());
+                return tests.size() - 1;
+            });
+        }
+    }
+
+    private static class Identity
+    {
+        private final Object object;
+
+        Identity(Object object)
+        {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return (o instanceof Identity) && (((Identity)o).object == object);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(object);
+        }
+    }
+}
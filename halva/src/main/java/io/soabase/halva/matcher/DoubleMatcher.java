@@ -0,0 +1,124 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.AnyDouble;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.Supplier;
+
+/**
+ * Pattern matcher specialized for double values. The value, literals, ranges, guards and
+ * binders are all unboxed. Literals are compared the same way as {@link Double#equals(Object)}.
+ * Create instances via {@link Matcher#matchDouble(double)}
+ */
+public class DoubleMatcher extends PrimitiveMatcherBase<DoubleMatcher>
+{
+    private final double arg;
+    private final List<DoublePredicate> tests = new ArrayList<>();
+
+    DoubleMatcher(double arg)
+    {
+        this.arg = arg;
+    }
+
+    /**
+     * Add a case that matches the given literal
+     *
+     * @param literal value to match
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> DoubleMatcher caseOf(double literal, Supplier<T> proc)
+    {
+        // same semantics as Double.equals() so that NaN matches NaN and 0.0 does not match -0.0
+        long literalBits = Double.doubleToLongBits(literal);
+        return addEntry(value -> Double.doubleToLongBits(value) == literalBits, proc);
+    }
+
+    /**
+     * Add a case that matches values for which the guard returns true
+     *
+     * @param guard test
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> DoubleMatcher caseOf(DoublePredicate guard, Supplier<T> proc)
+    {
+        return addEntry(guard, proc);
+    }
+
+    /**
+     * Add a case that matches any value and binds it
+     *
+     * @param binder binds the value
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> DoubleMatcher caseOf(AnyDouble binder, Supplier<T> proc)
+    {
+        return caseOf(binder, null, proc);
+    }
+
+    /**
+     * Add a case that binds the value and then checks the guard
+     *
+     * @param binder binds the value
+     * @param guard test
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> DoubleMatcher caseOf(AnyDouble binder, DoublePredicate guard, Supplier<T> proc)
+    {
+        return addEntry(value -> {
+            binder.set(value);
+            return (guard == null) || guard.test(value);
+        }, proc);
+    }
+
+    /**
+     * Add a case that matches values in the given range
+     *
+     * @param fromInclusive lowest matching value
+     * @param toInclusive highest matching value
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> DoubleMatcher caseOfRange(double fromInclusive, double toInclusive, Supplier<T> proc)
+    {
+        return addEntry(value -> (value >= fromInclusive) && (value <= toInclusive), proc);
+    }
+
+    @Override
+    boolean matches(int index)
+    {
+        return tests.get(index).test(arg);
+    }
+
+    @Override
+    String argToString()
+    {
+        return String.valueOf(arg);
+    }
+
+    private DoubleMatcher addEntry(DoublePredicate test, Supplier<?> proc)
+    {
+        addProc(proc);
+        tests.add(test);
+        return this;
+    }
+}
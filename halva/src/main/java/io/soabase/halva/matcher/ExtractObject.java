@@ -15,6 +15,7 @@
  */
 package io.soabase.halva.matcher;
 
+import io.soabase.halva.tuple.ClassTuple;
 import io.soabase.halva.tuple.Tuple;
 import java.util.function.Supplier;
 
@@ -31,6 +32,41 @@ class ExtractObject
 
     boolean extract(Object from)
     {
-        return values.extract(from) && ((guard == null) || guard.get());
+        return values.extract(from) && guardPasses();
+    }
+
+    boolean guardPasses()
+    {
+        return (guard == null) || guard.get();
+    }
+
+    boolean hasGuard()
+    {
+        return guard != null;
+    }
+
+    Tuple getValues()
+    {
+        return values;
+    }
+
+    /**
+     * If this extracter is for a single case class pattern (e.g. <code>MyCaseTu(...)</code>)
+     * return the class of the pattern. Such a pattern can only match values whose
+     * {@link io.soabase.halva.tuple.ClassTuplable#getClassTuplableClass()} is compatible with it.
+     *
+     * @return class tuple class or null
+     */
+    Class<?> getClassTupleClass()
+    {
+        if ( values.size() == 1 )
+        {
+            Object item = values.iterator().next();
+            if ( item instanceof ClassTuple )
+            {
+                return item.getClass();
+            }
+        }
+        return null;
     }
 }
@@ -18,7 +18,6 @@ package io.soabase.halva.matcher;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
 class Getter<ARG> implements GettersBase
@@ -29,7 +28,9 @@ class Getter<ARG> implements GettersBase
 
     static class Entry<ARG>
     {
-        final Function<ARG, Optional<? extends Supplier<?>>> curry;
+        final ExtractObject extracter;
+        final Supplier<?> proc;
+        final Class<?> classTupleClass;
 
         public Entry(ExtractObject extracter, Supplier<?> extracterProc)
         {
@@ -41,7 +42,9 @@ class Getter<ARG> implements GettersBase
             {
                 throw new IllegalArgumentException("proc cannot be null");
             }
-            curry = arg -> extracter.extract(arg) ? Optional.of(extracterProc::get) : Optional.empty();
+            this.extracter = extracter;
+            this.proc = extracterProc;
+            this.classTupleClass = extracter.getClassTupleClass();
         }
 
         Entry(Supplier<?> proc)
@@ -50,7 +53,9 @@ class Getter<ARG> implements GettersBase
             {
                 throw new IllegalArgumentException("proc cannot be null");
             }
-            this.curry = arg -> Optional.of(proc);
+            this.extracter = null;
+            this.proc = proc;
+            this.classTupleClass = null;
         }
     }
 
@@ -59,13 +64,6 @@ class Getter<ARG> implements GettersBase
         this.arg = Optional.ofNullable(arg);
     }
 
-    Getter(ARG arg, Getter<ARG> rhs)
-    {
-        this.defaultEntry = rhs.defaultEntry;
-        this.arg = Optional.ofNullable(arg);
-        this.entries.addAll(rhs.entries);
-    }
-
     void addEntry(Entry<ARG> entry)
     {
         entries.add(entry);
@@ -84,44 +82,27 @@ class Getter<ARG> implements GettersBase
         defaultEntry = new Entry<>(proc);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Optional<T> getOpt()
     {
-        ARG localArg = getArg();
-
-        Optional<? extends Supplier<?>> first = entries.stream()
-            .map(entry -> entry.curry.apply(localArg))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .findFirst();
+        return CaseTable.toOptional(CaseTable.evaluate(entries, defaultEntry, getArg(), false));
+    }
 
-        if ( first.isPresent() )
-        {
-            return Optional.ofNullable((T)first.get().get());
-        }
-        if ( defaultEntry != null )
-        {
-            Optional<? extends Supplier<?>> supplier = defaultEntry.curry.apply(localArg);
-            if ( supplier.isPresent() )
-            {
-                return Optional.ofNullable((T)supplier.get().get());
-            }
-        }
-        return Optional.empty();
+    CaseTable<ARG> table()
+    {
+        return new CaseTable<>(entries, defaultEntry);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> T get()
     {
-        return (T)getOpt().orElseThrow(() -> new MatchError("No matches found and no default provided for: " + getArg()));
+        return CaseTable.getOrThrow(CaseTable.evaluate(entries, defaultEntry, getArg(), false), getArg());
     }
 
     @Override
     public void apply()
     {
-        getOpt();
+        CaseTable.evaluate(entries, defaultEntry, getArg(), false);
     }
 
     ARG getArg()
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import javax.management.ObjectName;
+
+/**
+ * A {@link CompiledMatch} that keeps per-case statistics. Create instances via
+ * {@link Matcher#instrument(String, Partial)}
+ */
+public interface InstrumentedMatch<ARG, T> extends CompiledMatch<ARG, T>
+{
+    /**
+     * @return the name given when the matcher was created
+     */
+    String getName();
+
+    /**
+     * @return a snapshot of the current statistics
+     */
+    MatchStats getStats();
+
+    /**
+     * Reset all statistics to zero
+     */
+    void resetStats();
+
+    /**
+     * Register the statistics with the platform MBean server as
+     * <code>io.soabase.halva:type=Matcher,name=<i>name</i></code>
+     *
+     * Calling this again on the same matcher returns the same name.
+     *
+     * @return the name the bean was registered as
+     * @throws IllegalStateException if another bean (e.g. another matcher with the same name) is already registered with the name
+     */
+    ObjectName registerMBean();
+
+    /**
+     * Unregister the statistics from the platform MBean server if they were registered by
+     * {@link #registerMBean()}. Beans registered by other matchers are never unregistered.
+     */
+    void unregisterMBean();
+}
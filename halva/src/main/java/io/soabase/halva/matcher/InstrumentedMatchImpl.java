@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+class InstrumentedMatchImpl<ARG, T> extends CompiledMatchImpl<ARG, T> implements InstrumentedMatch<ARG, T>
+{
+    private final StatsCollector stats;
+    private ObjectName registeredName = null;  // guarded by this
+
+    InstrumentedMatchImpl(CaseTable<ARG> table, StatsCollector stats)
+    {
+        super(table);
+        this.stats = stats;
+    }
+
+    @Override
+    public String getName()
+    {
+        return stats.getName();
+    }
+
+    @Override
+    public MatchStats getStats()
+    {
+        return stats.getStats();
+    }
+
+    @Override
+    public void resetStats()
+    {
+        stats.resetStats();
+    }
+
+    @Override
+    public synchronized ObjectName registerMBean()
+    {
+        if ( registeredName != null )
+        {
+            return registeredName;
+        }
+
+        ObjectName objectName = null;
+        try
+        {
+            objectName = objectName();
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName);
+            registeredName = objectName;
+            return objectName;
+        }
+        catch ( InstanceAlreadyExistsException e )
+        {
+            throw new IllegalStateException("Another MBean is already registered as: " + objectName, e);
+        }
+        catch ( JMException e )
+        {
+            throw new RuntimeException("Could not register MBean for: " + getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void unregisterMBean()
+    {
+        if ( registeredName == null )
+        {
+            return;
+        }
+
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if ( server.isRegistered(registeredName) )
+            {
+                server.unregisterMBean(registeredName);
+            }
+            registeredName = null;
+        }
+        catch ( JMException e )
+        {
+            throw new RuntimeException("Could not unregister MBean for: " + getName(), e);
+        }
+    }
+
+    private ObjectName objectName() throws JMException
+    {
+        return new ObjectName("io.soabase.halva:type=Matcher,name=" + ObjectName.quote(getName()));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.AnyInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Pattern matcher specialized for int values. The value, literals, ranges, guards and
+ * binders are all unboxed. Create instances via {@link Matcher#matchInt(int)}
+ */
+public class IntMatcher extends PrimitiveMatcherBase<IntMatcher>
+{
+    private final int arg;
+    private final List<IntPredicate> tests = new ArrayList<>();
+
+    IntMatcher(int arg)
+    {
+        this.arg = arg;
+    }
+
+    /**
+     * Add a case that matches the given literal
+     *
+     * @param literal value to match
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> IntMatcher caseOf(int literal, Supplier<T> proc)
+    {
+        return addEntry(value -> value == literal, proc);
+    }
+
+    /**
+     * Add a case that matches values for which the guard returns true
+     *
+     * @param guard test
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> IntMatcher caseOf(IntPredicate guard, Supplier<T> proc)
+    {
+        return addEntry(guard, proc);
+    }
+
+    /**
+     * Add a case that matches any value and binds it
+     *
+     * @param binder binds the value
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> IntMatcher caseOf(AnyInt binder, Supplier<T> proc)
+    {
+        return caseOf(binder, null, proc);
+    }
+
+    /**
+     * Add a case that binds the value and then checks the guard
+     *
+     * @param binder binds the value
+     * @param guard test
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> IntMatcher caseOf(AnyInt binder, IntPredicate guard, Supplier<T> proc)
+    {
+        return addEntry(value -> {
+            binder.set(value);
+            return (guard == null) || guard.test(value);
+        }, proc);
+    }
+
+    /**
+     * Add a case that matches values in the given range
+     *
+     * @param fromInclusive lowest matching value
+     * @param toInclusive highest matching value
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> IntMatcher caseOfRange(int fromInclusive, int toInclusive, Supplier<T> proc)
+    {
+        return addEntry(value -> (value >= fromInclusive) && (value <= toInclusive), proc);
+    }
+
+    @Override
+    boolean matches(int index)
+    {
+        return tests.get(index).test(arg);
+    }
+
+    @Override
+    String argToString()
+    {
+        return String.valueOf(arg);
+    }
+
+    private IntMatcher addEntry(IntPredicate test, Supplier<?> proc)
+    {
+        addProc(proc);
+        tests.add(test);
+        return this;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.AnyLong;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Pattern matcher specialized for long values. The value, literals, ranges, guards and
+ * binders are all unboxed. Create instances via {@link Matcher#matchLong(long)}
+ */
+public class LongMatcher extends PrimitiveMatcherBase<LongMatcher>
+{
+    private final long arg;
+    private final List<LongPredicate> tests = new ArrayList<>();
+
+    LongMatcher(long arg)
+    {
+        this.arg = arg;
+    }
+
+    /**
+     * Add a case that matches the given literal
+     *
+     * @param literal value to match
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> LongMatcher caseOf(long literal, Supplier<T> proc)
+    {
+        return addEntry(value -> value == literal, proc);
+    }
+
+    /**
+     * Add a case that matches values for which the guard returns true
+     *
+     * @param guard test
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> LongMatcher caseOf(LongPredicate guard, Supplier<T> proc)
+    {
+        return addEntry(guard, proc);
+    }
+
+    /**
+     * Add a case that matches any value and binds it
+     *
+     * @param binder binds the value
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> LongMatcher caseOf(AnyLong binder, Supplier<T> proc)
+    {
+        return caseOf(binder, null, proc);
+    }
+
+    /**
+     * Add a case that binds the value and then checks the guard
+     *
+     * @param binder binds the value
+     * @param guard test
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> LongMatcher caseOf(AnyLong binder, LongPredicate guard, Supplier<T> proc)
+    {
+        return addEntry(value -> {
+            binder.set(value);
+            return (guard == null) || guard.test(value);
+        }, proc);
+    }
+
+    /**
+     * Add a case that matches values in the given range
+     *
+     * @param fromInclusive lowest matching value
+     * @param toInclusive highest matching value
+     * @param proc proc to execute on match
+     * @return this
+     */
+    public <T> LongMatcher caseOfRange(long fromInclusive, long toInclusive, Supplier<T> proc)
+    {
+        return addEntry(value -> (value >= fromInclusive) && (value <= toInclusive), proc);
+    }
+
+    @Override
+    boolean matches(int index)
+    {
+        return tests.get(index).test(arg);
+    }
+
+    @Override
+    String argToString()
+    {
+        return String.valueOf(arg);
+    }
+
+    private LongMatcher addEntry(LongPredicate test, Supplier<?> proc)
+    {
+        addProc(proc);
+        tests.add(test);
+        return this;
+    }
+}
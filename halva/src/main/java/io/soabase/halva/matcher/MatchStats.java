@@ -0,0 +1,96 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.beans.ConstructorProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of the statistics of an {@link InstrumentedMatch}
+ */
+public final class MatchStats
+{
+    private final String name;
+    private final long evaluations;
+    private final long defaultMatches;
+    private final long noMatches;
+    private final List<CaseStats> cases;
+
+    @ConstructorProperties({"name", "evaluations", "defaultMatches", "noMatches", "cases"})
+    public MatchStats(String name, long evaluations, long defaultMatches, long noMatches, List<CaseStats> cases)
+    {
+        this.name = name;
+        this.evaluations = evaluations;
+        this.defaultMatches = defaultMatches;
+        this.noMatches = noMatches;
+        this.cases = Collections.unmodifiableList(new ArrayList<>(cases));
+    }
+
+    /**
+     * @return the matcher's name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return number of values the matcher was applied to
+     */
+    public long getEvaluations()
+    {
+        return evaluations;
+    }
+
+    /**
+     * @return number of values that were handled by the default case
+     */
+    public long getDefaultMatches()
+    {
+        return defaultMatches;
+    }
+
+    /**
+     * @return number of values that matched no case and there was no default. These
+     * are the values that cause {@link CompiledMatch#apply(Object)} to throw {@link MatchError}
+     */
+    public long getNoMatches()
+    {
+        return noMatches;
+    }
+
+    /**
+     * @return statistics of each case in the order they were declared
+     */
+    public List<CaseStats> getCases()
+    {
+        return cases;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MatchStats{" +
+            "name='" + name + '\'' +
+            ", evaluations=" + evaluations +
+            ", defaultMatches=" + defaultMatches +
+            ", noMatches=" + noMatches +
+            ", cases=" + cases +
+            '}';
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.List;
+
+/**
+ * JMX view of an {@link InstrumentedMatch}. See {@link InstrumentedMatch#registerMBean()}
+ */
+public interface MatchStatsMXBean
+{
+    String getName();
+
+    long getEvaluations();
+
+    long getDefaultMatches();
+
+    long getNoMatches();
+
+    List<CaseStats> getCases();
+
+    void resetStats();
+}
@@ -17,11 +17,15 @@ package io.soabase.halva.matcher;
 
 import io.soabase.halva.any.Any;
 import io.soabase.halva.any.AnyList;
+import io.soabase.halva.any.AnyListPattern;
 import io.soabase.halva.any.AnyNull;
 import io.soabase.halva.any.AnyOptional;
 import io.soabase.halva.any.AnyType;
 import io.soabase.halva.sugar.ConsList;
 import io.soabase.halva.tuple.Tuple;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -41,6 +45,42 @@ public class Matcher<ARG> extends Getter<ARG> implements CasesBase<ARG, Matcher<
         return new Matcher<>(arg);
     }
 
+    /**
+     * Start a pattern matcher on the given int value. Unlike {@link #match(Object)} the
+     * value is never boxed
+     *
+     * @param arg value to match against
+     * @return a new matcher
+     */
+    public static IntMatcher matchInt(int arg)
+    {
+        return new IntMatcher(arg);
+    }
+
+    /**
+     * Start a pattern matcher on the given long value. Unlike {@link #match(Object)} the
+     * value is never boxed
+     *
+     * @param arg value to match against
+     * @return a new matcher
+     */
+    public static LongMatcher matchLong(long arg)
+    {
+        return new LongMatcher(arg);
+    }
+
+    /**
+     * Start a pattern matcher on the given double value. Unlike {@link #match(Object)} the
+     * value is never boxed
+     *
+     * @param arg value to match against
+     * @return a new matcher
+     */
+    public static DoubleMatcher matchDouble(double arg)
+    {
+        return new DoubleMatcher(arg);
+    }
+
     /**
      * Start a partial matcher on the given value. The partial can be executed at a later
      * time by specifying the value using {@link Partial#with(Object)}
@@ -65,6 +105,67 @@ public class Matcher<ARG> extends Getter<ARG> implements CasesBase<ARG, Matcher<
         return new PartialImpl<>();
     }
 
+    /**
+     * Compile the cases of the given partial into an immutable, reusable matcher. The
+     * cases are built only once - each call to {@link CompiledMatch#apply(Object)} evaluates
+     * them without any per-call setup. Cases added to the partial after compiling are
+     * not seen by the returned matcher.
+     *
+     * @param partial the partial whose cases should be compiled
+     * @param options compile options
+     * @return compiled matcher
+     */
+    public static <ARG, T> CompiledMatch<ARG, T> compile(Partial<ARG> partial, CompileOption... options)
+    {
+        if ( !(partial instanceof PartialImpl) )
+        {
+            throw new IllegalArgumentException("Only partials created via Matcher.partial() can be compiled");
+        }
+        Set<CompileOption> optionsSet = (options.length > 0) ? EnumSet.copyOf(Arrays.asList(options)) : EnumSet.noneOf(CompileOption.class);
+        return new CompiledMatchImpl<>(((PartialImpl<ARG>)partial).table().withOptions(optionsSet));
+    }
+
+    /**
+     * Compile the cases of the given partial the same way as {@link #compile(Partial, CompileOption...)}
+     * but keep statistics for each case: the number of attempts, matches and guard failures and the
+     * time spent extracting. The statistics are available via {@link InstrumentedMatch#getStats()}
+     * and can be exported to JMX via {@link InstrumentedMatch#registerMBean()}. Instrumented
+     * matchers try their cases one at a time in declared order so that the counts reflect the
+     * declared cases.
+     *
+     * @param name name for the statistics
+     * @param partial the partial whose cases should be compiled
+     * @return instrumented matcher
+     */
+    public static <ARG, T> InstrumentedMatch<ARG, T> instrument(String name, Partial<ARG> partial)
+    {
+        if ( !(partial instanceof PartialImpl) )
+        {
+            throw new IllegalArgumentException("Only partials created via Matcher.partial() can be compiled");
+        }
+        CaseTable<ARG> table = ((PartialImpl<ARG>)partial).table().instrumented(name);
+        return new InstrumentedMatchImpl<>(table, table.getStats());
+    }
+
+    /**
+     * Use as the result of a case proc to match the same cases again against the given value - i.e. a
+     * tail call. The matcher evaluates the cases in a loop so that deep recursion runs in constant
+     * stack space and re-uses the already built cases. E.g.
+     * <pre>
+     * caseOf( anyHeadAnyTail(head, tail), () -&gt; found(head.val()) ? head.val() : recur(tail.val()) )
+     * </pre>
+     * <code>recur()</code> must be the last thing the proc does.
+     *
+     * @param arg the next value to match
+     * @return placeholder result - the matcher replaces it with the result of the next match
+     * @throws IllegalStateException if called outside of a case proc
+     */
+    public static <T> T recur(Object arg)
+    {
+        Trampoline.recur(arg);
+        return null;
+    }
+
     /**
      * Return a new AnyList that matches the given head of a list and the given tail of a list
      *
@@ -113,6 +214,39 @@ public class Matcher<ARG> extends Getter<ARG> implements CasesBase<ARG, Matcher<
         return Any.anyHeadAnyTail(head, tail);
     }
 
+    /**
+     * Return a new AnyListPattern that matches lists that start with the given elements
+     *
+     * @param items the first elements of the list - values or Anys
+     * @return new AnyListPattern
+     */
+    public static AnyListPattern prefix(Object... items)
+    {
+        return Any.prefix(items);
+    }
+
+    /**
+     * Return a new AnyListPattern that matches lists that end with the given elements
+     *
+     * @param items the last elements of the list - values or Anys
+     * @return new AnyListPattern
+     */
+    public static AnyListPattern suffix(Object... items)
+    {
+        return Any.suffix(items);
+    }
+
+    /**
+     * Return a new AnyListPattern that matches lists that have exactly the given elements
+     *
+     * @param items the elements of the list - values or Anys
+     * @return new AnyListPattern
+     */
+    public static AnyListPattern exactly(Object... items)
+    {
+        return Any.exactly(items);
+    }
+
     /**
      * Returns an Any that matches any null value
      *
@@ -15,6 +15,143 @@
  */
 package io.soabase.halva.matcher;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 public interface Partial<ARG> extends CasesBase<ARG, Partial<ARG>>, WithBase<ARG>
 {
+    /**
+     * Return true if one of the cases (or the default) matches the given value. No procs
+     * are executed and the Anys are not changed. Note: guards are executed.
+     *
+     * @param arg value to test
+     * @return true/false
+     */
+    boolean isDefinedAt(ARG arg);
+
+    /**
+     * Return a new partial with the cases of this partial followed by the cases of the given partial.
+     * The cases are merged into a single set of cases - i.e. the new partial is evaluated the same
+     * as if all the cases had been added to one partial. If this partial has a default case the
+     * cases of the other partial are never reached and are not added. Cases added to either partial
+     * later on are not seen by the new partial.
+     *
+     * @param other partial to try when the cases of this partial don't match
+     * @return new partial
+     */
+    Partial<ARG> orElse(Partial<ARG> other);
+
+    /**
+     * Return a new partial with the same cases as this partial where the result of each proc is
+     * passed to the given mapper. Procs that return null (e.g. unit cases) are not mapped - their
+     * result stays null. Cases added to this partial later on are not seen by the new partial.
+     *
+     * @param mapper mapper for the results
+     * @return new partial
+     */
+    <T, R> Partial<ARG> andThen(Function<? super T, ? extends R> mapper);
+
+    /**
+     * Match each of the given values and return the results in the same order. The cases are
+     * evaluated directly for each value - no per-value matcher is created. As with <code>get()</code>, a
+     * case that returns null (e.g. a unit case) is treated as no match - use {@link #applyEach(Iterable)} for
+     * cases that are run for their side effects.
+     *
+     * @param values values to match
+     * @return list of the matches
+     * @throws MatchError if one of the values doesn't match or its case returns null
+     */
+    <T> List<T> applyAll(Iterable<? extends ARG> values);
+
+    /**
+     * Match each of the given values and run the matching case's proc - the results are ignored. This is
+     * the batch equivalent of <code>apply()</code>: cases that return null (e.g. unit cases) are allowed.
+     *
+     * @param values values to match
+     * @throws MatchError if one of the values doesn't match
+     */
+    void applyEach(Iterable<? extends ARG> values);
+
+    /**
+     * Return a stream of the matches of each of the values of the given stream. If the given stream is parallel,
+     * the values are matched in parallel - each evaluation has its own per-thread bindings.
+     *
+     * @param values values to match
+     * @return stream of the matches
+     * @throws MatchError (when the stream is consumed) if one of the values doesn't match or its case returns null
+     */
+    <T> Stream<T> mapStream(Stream<? extends ARG> values);
+
+    /**
+     * Match each of the given values in parallel (via the common fork/join pool) and return the results in
+     * the same order as the values.
+     *
+     * @param values values to match
+     * @return list of the matches
+     * @throws MatchError if one of the values doesn't match or its case returns null
+     */
+    <T> List<T> applyAllParallel(Collection<? extends ARG> values);
+
+    /**
+     * Same as {@link #applyEach(Iterable)} but the values are matched in parallel (via the common fork/join pool)
+     *
+     * @param values values to match
+     * @throws MatchError if one of the values doesn't match
+     */
+    void applyEachParallel(Collection<? extends ARG> values);
+
+    /**
+     * Match the value of the given stage when it completes. The cases are evaluated on the thread
+     * that completes the stage - nothing blocks. If there is no match (or, as with <code>get()</code>, the
+     * matching case returns null - e.g. a unit case) the returned stage completes exceptionally with a
+     * {@link MatchError}. Use {@link #matchAsyncUnit(CompletionStage)} for cases that are run for their side effects.
+     *
+     * @param stage stage that produces the value to match
+     * @return stage of the match
+     */
+    <T> CompletionStage<T> matchAsync(CompletionStage<? extends ARG> stage);
+
+    /**
+     * Same as {@link #matchAsync(CompletionStage)} but the cases are evaluated using the given executor
+     *
+     * @param stage stage that produces the value to match
+     * @param executor executor to use
+     * @return stage of the match
+     */
+    <T> CompletionStage<T> matchAsync(CompletionStage<? extends ARG> stage, Executor executor);
+
+    /**
+     * Match the value of the given stage when it completes and run the matching case's proc - the
+     * asynchronous equivalent of <code>apply()</code>. Cases that return null (e.g. unit cases) are allowed. If
+     * there is no match the returned stage completes exceptionally with a {@link MatchError}.
+     *
+     * @param stage stage that produces the value to match
+     * @return stage that completes when the proc has run
+     */
+    CompletionStage<Void> matchAsyncUnit(CompletionStage<? extends ARG> stage);
+
+    /**
+     * Same as {@link #matchAsyncUnit(CompletionStage)} but the cases are evaluated using the given executor
+     *
+     * @param stage stage that produces the value to match
+     * @param executor executor to use
+     * @return stage that completes when the proc has run
+     */
+    CompletionStage<Void> matchAsyncUnit(CompletionStage<? extends ARG> stage, Executor executor);
+
+    /**
+     * Compile the cases of this partial into a matcher that keeps per-case statistics - the same
+     * as {@link Matcher#instrument(String, Partial)}
+     *
+     * @param name name for the statistics
+     * @return instrumented matcher
+     */
+    default <T> InstrumentedMatch<ARG, T> instrument(String name)
+    {
+        return Matcher.instrument(name, this);
+    }
 }
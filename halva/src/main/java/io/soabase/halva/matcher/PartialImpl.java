@@ -16,101 +16,108 @@
 package io.soabase.halva.matcher;
 
 import io.soabase.halva.tuple.Tuple;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class PartialImpl<ARG> implements GettersBase, Partial<ARG>
 {
     private final Matcher<ARG> matcher;
+    private volatile CaseTable<ARG> table;
 
     PartialImpl()
     {
         matcher = new Matcher<>(null);
     }
 
+    private PartialImpl(List<Getter.Entry<ARG>> entries, Getter.Entry<ARG> defaultEntry)
+    {
+        this();
+        entries.forEach(matcher::addEntry);
+        if ( defaultEntry != null )
+        {
+            matcher.setDefault(defaultEntry.proc);
+        }
+    }
+
     @Override
     public <T> Partial<ARG> caseOf(Tuple lhs, Supplier<Boolean> guard, Supplier<T> proc)
     {
-        matcher.caseOf(lhs, guard, proc);
-        return this;
+        return append(() -> matcher.caseOf(lhs, guard, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOf(Tuple lhs, Supplier<T> proc)
     {
-        matcher.caseOf(lhs, proc);
-        return this;
+        return append(() -> matcher.caseOf(lhs, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOf(Object lhs, Supplier<T> proc)
     {
-        matcher.caseOf(lhs, proc);
-        return this;
+        return append(() -> matcher.caseOf(lhs, proc));
     }
 
     @Override
     public Partial<ARG> caseOfUnit(Object lhs, Runnable proc)
     {
-        matcher.caseOfUnit(lhs, proc);
-        return this;
+        return append(() -> matcher.caseOfUnit(lhs, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOfTest(Predicate<ARG> tester, Supplier<T> proc)
     {
-        matcher.caseOfTest(tester, proc);
-        return this;
+        return append(() -> matcher.caseOfTest(tester, proc));
     }
 
     @Override
     public Partial<ARG> caseOfTestUnit(Predicate<ARG> tester, Runnable proc)
     {
-        matcher.caseOfTestUnit(tester, proc);
-        return this;
+        return append(() -> matcher.caseOfTestUnit(tester, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOf(Supplier<T> proc)
     {
-        matcher.caseOf(proc);
-        return this;
+        return append(() -> matcher.caseOf(proc));
     }
 
     @Override
     public Partial<ARG> caseOfUnit(Runnable proc)
     {
-        matcher.caseOfUnit(proc);
-        return this;
+        return append(() -> matcher.caseOfUnit(proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOf(Object lhs, Supplier<Boolean> guard, Supplier<T> proc)
     {
-        matcher.caseOf(lhs, guard, proc);
-        return this;
+        return append(() -> matcher.caseOf(lhs, guard, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOfUnit(Tuple lhs, Supplier<Boolean> guard, Runnable proc)
     {
-        matcher.caseOfUnit(lhs, guard, proc);
-        return this;
+        return append(() -> matcher.caseOfUnit(lhs, guard, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOfUnit(Object lhs, Supplier<Boolean> guard, Runnable proc)
     {
-        matcher.caseOfUnit(lhs, guard, proc);
-        return this;
+        return append(() -> matcher.caseOfUnit(lhs, guard, proc));
     }
 
     @Override
     public <T> Partial<ARG> caseOfUnit(Tuple lhs, Runnable proc)
     {
-        matcher.caseOfUnit(lhs, proc);
-        return this;
+        return append(() -> matcher.caseOfUnit(lhs, proc));
     }
 
     @Override
@@ -131,9 +138,145 @@ class PartialImpl<ARG> implements GettersBase, Partial<ARG>
         matcher.apply();
     }
 
+    private Partial<ARG> append(Runnable addCase)
+    {
+        addCase.run();
+        table = null;   // rebuilt on next use
+        return this;
+    }
+
+    CaseTable<ARG> table()
+    {
+        CaseTable<ARG> localTable = table;
+        if ( localTable == null )
+        {
+            localTable = matcher.table();
+            table = localTable;
+        }
+        return localTable;
+    }
+
+    @Override
+    public boolean isDefinedAt(ARG arg)
+    {
+        return table().isDefinedAt(arg);
+    }
+
+    @Override
+    public Partial<ARG> orElse(Partial<ARG> other)
+    {
+        if ( !(other instanceof PartialImpl) )
+        {
+            throw new IllegalArgumentException("Only partials created via Matcher.partial() can be combined");
+        }
+        CaseTable<ARG> thisTable = table();
+        CaseTable<ARG> otherTable = ((PartialImpl<ARG>)other).table();
+
+        List<Getter.Entry<ARG>> entries = new ArrayList<>(thisTable.getEntries());
+        Getter.Entry<ARG> defaultEntry = thisTable.getDefaultEntry();
+        if ( defaultEntry == null )
+        {
+            entries.addAll(otherTable.getEntries());
+            defaultEntry = otherTable.getDefaultEntry();
+        }
+        return new PartialImpl<>(entries, defaultEntry);
+    }
+
+    @Override
+    public <T, R> Partial<ARG> andThen(Function<? super T, ? extends R> mapper)
+    {
+        CaseTable<ARG> thisTable = table();
+        List<Getter.Entry<ARG>> entries = thisTable.getEntries().stream()
+            .map(entry -> new Getter.Entry<ARG>(entry.extracter, mapped(entry.proc, mapper)))
+            .collect(Collectors.toList());
+        Getter.Entry<ARG> defaultEntry = thisTable.getDefaultEntry();
+        return new PartialImpl<>(entries, (defaultEntry != null) ? new Getter.Entry<>(mapped(defaultEntry.proc, mapper)) : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> Supplier<R> mapped(Supplier<?> proc, Function<? super T, ? extends R> mapper)
+    {
+        return () -> {
+            Object result = proc.get();
+            // the result of a recur() is replaced by the result of the next match which is mapped then.
+            // null results (e.g. from unit cases) are not mapped
+            return (Trampoline.isRecurring() || (result == null)) ? null : mapper.apply((T)result);
+        };
+    }
+
+    @Override
+    public <T> List<T> applyAll(Iterable<? extends ARG> values)
+    {
+        CaseTable<ARG> localTable = table();
+        List<T> results = (values instanceof Collection) ? new ArrayList<>(((Collection<?>)values).size()) : new ArrayList<>();
+        for ( ARG value : values )
+        {
+            results.add(CaseTable.getOrThrow(localTable.evaluate(value), value));
+        }
+        return results;
+    }
+
+    @Override
+    public void applyEach(Iterable<? extends ARG> values)
+    {
+        CaseTable<ARG> localTable = table();
+        for ( ARG value : values )
+        {
+            CaseTable.checkMatched(localTable.evaluate(value), value);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> mapStream(Stream<? extends ARG> values)
+    {
+        CaseTable<ARG> localTable = table();
+        return values.map(value -> CaseTable.getOrThrow(localTable.evaluate(value), value));
+    }
+
+    @Override
+    public <T> List<T> applyAllParallel(Collection<? extends ARG> values)
+    {
+        return this.<T>mapStream(values.parallelStream()).collect(Collectors.toList());
+    }
+
+    @Override
+    public void applyEachParallel(Collection<? extends ARG> values)
+    {
+        CaseTable<ARG> localTable = table();
+        values.parallelStream().forEach(value -> CaseTable.checkMatched(localTable.evaluate(value), value));
+    }
+
+    @Override
+    public <T> CompletionStage<T> matchAsync(CompletionStage<? extends ARG> stage)
+    {
+        CaseTable<ARG> localTable = table();
+        return stage.thenApply(value -> CaseTable.getOrThrow(localTable.evaluate(value), value));
+    }
+
+    @Override
+    public <T> CompletionStage<T> matchAsync(CompletionStage<? extends ARG> stage, Executor executor)
+    {
+        CaseTable<ARG> localTable = table();
+        return stage.thenApplyAsync(value -> CaseTable.getOrThrow(localTable.evaluate(value), value), executor);
+    }
+
+    @Override
+    public CompletionStage<Void> matchAsyncUnit(CompletionStage<? extends ARG> stage)
+    {
+        CaseTable<ARG> localTable = table();
+        return stage.thenAccept(value -> CaseTable.checkMatched(localTable.evaluate(value), value));
+    }
+
+    @Override
+    public CompletionStage<Void> matchAsyncUnit(CompletionStage<? extends ARG> stage, Executor executor)
+    {
+        CaseTable<ARG> localTable = table();
+        return stage.thenAcceptAsync(value -> CaseTable.checkMatched(localTable.evaluate(value), value), executor);
+    }
+
     @Override
     public GettersBase with(ARG arg)
     {
-        return new Getter<>(arg, matcher);
+        return new TableGetter<>(table(), arg);
     }
 }
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.tuple.Tuplable;
+import io.soabase.halva.tuple.Tuple;
+import java.util.Optional;
+
+/**
+ * <p>
+ *     A reusable extraction pattern. Instead of binding into {@link io.soabase.halva.any.Any}s, the
+ *     placeholders of a pattern are numbered slots (see {@link #slot(int)}). A pattern holds no per-match
+ *     state so it can be built once, stored in a <code>static final</code> field and shared between threads. E.g.
+ * </p>
+ *
+ * <pre>
+ * static final Pattern sum = Pattern.of(AddTu(slot(0), slot(1)));
+ *
+ * ...
+ *
+ * sum.extract(term).ifPresent(b -&gt; System.out.println(b.get(0) + " + " + b.get(1)));
+ * </pre>
+ *
+ * <p>
+ *     Slots can be used anywhere an Any can be used inside of tuples and case class patterns.
+ * </p>
+ */
+public final class Pattern
+{
+    private static final ThreadLocal<Target> target = ThreadLocal.withInitial(Target::new);
+
+    private static class Target
+    {
+        private Object[] slots;
+    }
+
+    private final Tuple pattern;
+    private final int slotQty;
+
+    /**
+     * Return a placeholder for the given slot that matches any value
+     *
+     * @param index slot index
+     * @return placeholder
+     */
+    public static <T> Slot<T> slot(int index)
+    {
+        return new Slot<>(index, null);
+    }
+
+    /**
+     * Return a placeholder for the given slot that matches values of the given type
+     *
+     * @param index slot index
+     * @param type type of values to match
+     * @return placeholder
+     */
+    public static <T> Slot<T> slot(int index, Class<T> type)
+    {
+        return new Slot<>(index, type);
+    }
+
+    /**
+     * Build a pattern
+     *
+     * @param pattern tuple, case class pattern, etc.
+     * @return pattern
+     */
+    public static Pattern of(Tuple pattern)
+    {
+        return new Pattern(pattern);
+    }
+
+    /**
+     * Build a pattern
+     *
+     * @param pattern case class pattern, slot, literal, etc.
+     * @return pattern
+     */
+    public static Pattern of(Object pattern)
+    {
+        return new Pattern(Tuple.Tu(pattern));
+    }
+
+    private Pattern(Tuple pattern)
+    {
+        this.pattern = pattern;
+        this.slotQty = countSlots(pattern);
+    }
+
+    /**
+     * @return the number of slots of this pattern (i.e. the highest slot index plus one)
+     */
+    public int getSlotQty()
+    {
+        return slotQty;
+    }
+
+    /**
+     * Extract the given value
+     *
+     * @param value value to extract
+     * @return the bound slots or empty if the value doesn't match
+     */
+    public Optional<Bindings> extract(Object value)
+    {
+        Object[] slots = new Object[slotQty];
+        return extractInto(value, slots) ? Optional.of(new Bindings(slots)) : Optional.empty();
+    }
+
+    /**
+     * Extract the given value into the given array. The array is indexed by slot and can be reused
+     * for each extraction - this method does not allocate. If the value doesn't match the contents of
+     * the array are undefined.
+     *
+     * @param value value to extract
+     * @param slots destination for the slot values - must have at least {@link #getSlotQty()} elements
+     * @return true if the value matches
+     */
+    public boolean extractInto(Object value, Object[] slots)
+    {
+        if ( slots.length < slotQty )
+        {
+            throw new IllegalArgumentException(String.format("slots must have at least %d elements", slotQty));
+        }
+
+        Target localTarget = target.get();
+        Object[] previousSlots = localTarget.slots;
+        localTarget.slots = slots;
+        try
+        {
+            return pattern.extract(value);
+        }
+        finally
+        {
+            localTarget.slots = previousSlots;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Pattern" + pattern;
+    }
+
+    static void bind(int index, Object value)
+    {
+        Object[] slots = target.get().slots;
+        if ( slots != null )
+        {
+            slots[index] = value;
+        }
+    }
+
+    private static int countSlots(Object item)
+    {
+        if ( item instanceof Slot )
+        {
+            return ((Slot)item).getIndex() + 1;
+        }
+        if ( item instanceof Tuple )
+        {
+            int qty = 0;
+            for ( Object child : (Tuple)item )
+            {
+                qty = Math.max(qty, countSlots(child));
+            }
+            return qty;
+        }
+        if ( item instanceof Tuplable )
+        {
+            return countSlots(((Tuplable)item).tuple());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Shared implementation of {@link IntMatcher}, {@link LongMatcher} and {@link DoubleMatcher}. Subclasses
+ * keep their cases' tests in unboxed form, this class keeps the procs and the default
+ */
+abstract class PrimitiveMatcherBase<M extends PrimitiveMatcherBase<M>> implements GettersBase
+{
+    private final List<Supplier<?>> procs = new ArrayList<>();
+    private Supplier<?> defaultProc = null;
+
+    /**
+     * Add a default case. This case will be executed if there are no other matches
+     *
+     * @param proc proc to execute
+     * @return this
+     */
+    public <T> M caseOf(Supplier<T> proc)
+    {
+        if ( proc == null )
+        {
+            throw new IllegalArgumentException("proc cannot be null");
+        }
+        if ( defaultProc != null )
+        {
+            throw new IllegalArgumentException("A default case has already been added");
+        }
+        defaultProc = proc;
+        return self();
+    }
+
+    @Override
+    public <T> Optional<T> getOpt()
+    {
+        return CaseTable.toOptional(evaluate());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get()
+    {
+        Object result = evaluate();
+        if ( (result == CaseTable.NO_MATCH) || (result == null) )
+        {
+            // the value is only converted (not boxed) when there's an error
+            throw CaseTable.noMatchError(argToString());
+        }
+        return (T)result;
+    }
+
+    @Override
+    public void apply()
+    {
+        evaluate();
+    }
+
+    /**
+     * Return true if the test of the case at the given index matches the value
+     *
+     * @param index case index
+     * @return true/false
+     */
+    abstract boolean matches(int index);
+
+    abstract String argToString();
+
+    /**
+     * Subclasses must call this before adding the test of a case
+     *
+     * @param proc the case's proc
+     */
+    void addProc(Supplier<?> proc)
+    {
+        if ( proc == null )
+        {
+            throw new IllegalArgumentException("proc cannot be null");
+        }
+        procs.add(proc);
+    }
+
+    @SuppressWarnings("unchecked")
+    M self()
+    {
+        return (M)this;
+    }
+
+    private Object evaluate()
+    {
+        for ( int i = 0; i < procs.size(); ++i )
+        {
+            if ( matches(i) )
+            {
+                return procs.get(i).get();
+            }
+        }
+        return (defaultProc != null) ? defaultProc.get() : CaseTable.NO_MATCH;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import io.soabase.halva.any.Any;
+
+/**
+ * A placeholder in a {@link Pattern}. Matched values are written to the slot array of the
+ * current extraction - slots themselves hold no value and can be shared.
+ */
+public final class Slot<T> implements Any<T>
+{
+    private final int index;
+    private final Class<T> type;
+
+    Slot(int index, Class<T> type)
+    {
+        if ( index < 0 )
+        {
+            throw new IllegalArgumentException("index cannot be negative: " + index);
+        }
+        this.index = index;
+        this.type = type;
+    }
+
+    public int getIndex()
+    {
+        return index;
+    }
+
+    @Override
+    public T val()
+    {
+        throw new UnsupportedOperationException("Slots do not hold values - use the result of the extraction");
+    }
+
+    @Override
+    public void set(T value)
+    {
+        Pattern.bind(index, value);
+    }
+
+    @Override
+    public boolean canSet(T value)
+    {
+        return (type == null) || type.isInstance(value);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "slot(" + index + ")";
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+class StatsCollector implements MatchStatsMXBean
+{
+    private final String name;
+    private final String[] patterns;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder defaultMatches = new LongAdder();
+    private final LongAdder noMatches = new LongAdder();
+    private final CaseCounters[] cases;
+
+    static class CaseCounters
+    {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder guardFailures = new LongAdder();
+        private final LongAdder extractNanos = new LongAdder();
+
+        void record(boolean extracted, boolean matched, long nanos)
+        {
+            attempts.increment();
+            if ( matched )
+            {
+                matches.increment();
+            }
+            else if ( extracted )
+            {
+                guardFailures.increment();
+            }
+            extractNanos.add(nanos);
+        }
+
+        private void reset()
+        {
+            attempts.reset();
+            matches.reset();
+            guardFailures.reset();
+            extractNanos.reset();
+        }
+    }
+
+    StatsCollector(String name, List<? extends Getter.Entry<?>> entries)
+    {
+        this.name = name;
+        patterns = new String[entries.size()];
+        cases = new CaseCounters[entries.size()];
+        for ( int i = 0; i < entries.size(); ++i )
+        {
+            patterns[i] = String.valueOf(entries.get(i).extracter.getValues());
+            cases[i] = new CaseCounters();
+        }
+    }
+
+    CaseCounters counters(int index)
+    {
+        return cases[index];
+    }
+
+    void recordEvaluation()
+    {
+        evaluations.increment();
+    }
+
+    void recordDefaultMatch()
+    {
+        defaultMatches.increment();
+    }
+
+    void recordNoMatch()
+    {
+        noMatches.increment();
+    }
+
+    MatchStats getStats()
+    {
+        return new MatchStats(name, getEvaluations(), getDefaultMatches(), getNoMatches(), getCases());
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public long getEvaluations()
+    {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getDefaultMatches()
+    {
+        return defaultMatches.sum();
+    }
+
+    @Override
+    public long getNoMatches()
+    {
+        return noMatches.sum();
+    }
+
+    @Override
+    public List<CaseStats> getCases()
+    {
+        List<CaseStats> stats = new ArrayList<>(cases.length);
+        for ( int i = 0; i < cases.length; ++i )
+        {
+            CaseCounters counters = cases[i];
+            stats.add(new CaseStats(i, patterns[i], counters.attempts.sum(), counters.matches.sum(), counters.guardFailures.sum(), counters.extractNanos.sum()));
+        }
+        return stats;
+    }
+
+    @Override
+    public void resetStats()
+    {
+        evaluations.reset();
+        defaultMatches.reset();
+        noMatches.reset();
+        for ( CaseCounters counters : cases )
+        {
+            counters.reset();
+        }
+    }
+}
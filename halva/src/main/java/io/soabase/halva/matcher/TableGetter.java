@@ -0,0 +1,48 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+import java.util.Optional;
+
+class TableGetter<ARG> implements GettersBase
+{
+    private final CaseTable<ARG> table;
+    private final ARG arg;
+
+    TableGetter(CaseTable<ARG> table, ARG arg)
+    {
+        this.table = table;
+        this.arg = arg;
+    }
+
+    @Override
+    public <T> Optional<T> getOpt()
+    {
+        return table.getOpt(arg);
+    }
+
+    @Override
+    public <T> T get()
+    {
+        return CaseTable.getOrThrow(table.evaluate(arg), arg);
+    }
+
+    @Override
+    public void apply()
+    {
+        table.evaluate(arg);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.matcher;
+
+/**
+ * Per-thread state for {@link Matcher#recur(Object)}. A proc that returns <code>recur(value)</code>
+ * leaves the value here and the evaluation loop of the matcher that ran the proc re-evaluates
+ * its cases against the value instead of growing the stack. Entering/exiting does not allocate.
+ */
+class Trampoline
+{
+    private static final ThreadLocal<Trampoline> trampoline = ThreadLocal.withInitial(Trampoline::new);
+
+    private int depth = 0;
+    private boolean pending = false;
+    private Object arg = null;
+
+    static Trampoline enter()
+    {
+        Trampoline current = trampoline.get();
+        if ( current.pending )
+        {
+            current.pending = false;
+            current.arg = null;
+            throw new IllegalStateException("recur() must be the last thing a case proc does");
+        }
+        ++current.depth;
+        return current;
+    }
+
+    static void recur(Object arg)
+    {
+        Trampoline current = trampoline.get();
+        if ( current.depth == 0 )
+        {
+            throw new IllegalStateException("recur() can only be called from a case proc");
+        }
+        current.pending = true;
+        current.arg = arg;
+    }
+
+    static boolean isRecurring()
+    {
+        return trampoline.get().pending;
+    }
+
+    void exit()
+    {
+        --depth;
+        pending = false;
+        arg = null;
+    }
+
+    boolean isPending()
+    {
+        return pending;
+    }
+
+    @SuppressWarnings("unchecked")
+    <ARG> ARG next()
+    {
+        ARG next = (ARG)arg;
+        pending = false;
+        arg = null;
+        return next;
+    }
+}
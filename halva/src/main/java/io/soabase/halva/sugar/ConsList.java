@@ -55,4 +55,18 @@ public interface ConsList<T> extends List<T>
      * @return new list
      */
     ConsList<T> cons(T newHead);
+
+    /**
+     * Return a list of the elements of this list from <code>fromIndex</code> (inclusive) to
+     * <code>toIndex</code> (exclusive). Unlike {@link #subList(int, int)} the elements are not copied.
+     *
+     * @param fromIndex low endpoint (inclusive)
+     * @param toIndex high endpoint (exclusive)
+     * @return the slice
+     * @throws IndexOutOfBoundsException for an illegal endpoint index value
+     */
+    default ConsList<T> slice(int fromIndex, int toIndex)
+    {
+        return new ConsListImpl<>(subList(fromIndex, toIndex), false);
+    }
 }
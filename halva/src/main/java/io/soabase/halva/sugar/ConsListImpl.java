@@ -104,6 +104,12 @@ class ConsListImpl<T> implements ConsList<T>
         return new ConsListImpl<>(list.subList(1, size()), null);
     }
 
+    @Override
+    public ConsList<T> slice(int fromIndex, int toIndex)
+    {
+        return new ConsListImpl<>(list.subList(fromIndex, toIndex), null);
+    }
+
     @Override
     public int size()
     {
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+/**
+ * A {@link Tuplable} whose items can be read one at a time without building the tuple. Case
+ * classes implement this so that extracting them doesn't allocate a tuple and so that
+ * primitive fields can be bound to {@link io.soabase.halva.any.AnyPrimitive} binders without boxing.
+ */
+public interface IndexedTuplable extends Tuplable
+{
+    /**
+     * @return the number of items - the same as <code>tuple().size()</code>
+     */
+    int tupleSize();
+
+    /**
+     * @param index item index
+     * @return the item - the same as <code>tuple().get(index)</code>
+     */
+    Object tupleItem(int index);
+
+    /**
+     * @param index item index
+     * @return the primitive type of the item (e.g. <code>int.class</code>) or null if the item isn't a primitive
+     */
+    Class<?> tuplePrimitiveType(int index);
+
+    default int tupleInt(int index)
+    {
+        return (Integer)tupleItem(index);
+    }
+
+    default long tupleLong(int index)
+    {
+        return (Long)tupleItem(index);
+    }
+
+    default double tupleDouble(int index)
+    {
+        return (Double)tupleItem(index);
+    }
+}
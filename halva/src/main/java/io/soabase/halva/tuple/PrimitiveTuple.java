@@ -0,0 +1,44 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+/**
+ * A tuple that stores some or all of its items as unboxed primitives (e.g.
+ * {@link io.soabase.halva.tuple.details.IntLongTuple}). Primitive tuples are equal to (and have the
+ * same hash code as) the boxed tuple with the same items - i.e. <code>IntLongTuple(1, 2L)</code>
+ * equals <code>Tu(1, 2L)</code> - and can be extracted with the same patterns. The items are read
+ * without boxing when comparing to literals or binding to {@link io.soabase.halva.any.AnyPrimitive} binders.
+ */
+public interface PrimitiveTuple extends Tuple, IndexedTuplable
+{
+    @Override
+    default Tuple tuple()
+    {
+        return this;
+    }
+
+    @Override
+    default int tupleSize()
+    {
+        return size();
+    }
+
+    @Override
+    default Object tupleItem(int index)
+    {
+        return get(index);
+    }
+}
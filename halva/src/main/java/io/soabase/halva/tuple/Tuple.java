@@ -98,6 +98,98 @@ public interface Tuple extends Collection<Object>
         return new Pair<>(_1, _2);
     }
 
+    // primitive tuples - see PrimitiveTuple
+
+    static IntIntTuple IntIntTuple(int _1, int _2)
+    {
+        return new IntIntTuple(_1, _2);
+    }
+
+    static IntLongTuple IntLongTuple(int _1, long _2)
+    {
+        return new IntLongTuple(_1, _2);
+    }
+
+    static IntDoubleTuple IntDoubleTuple(int _1, double _2)
+    {
+        return new IntDoubleTuple(_1, _2);
+    }
+
+    static LongIntTuple LongIntTuple(long _1, int _2)
+    {
+        return new LongIntTuple(_1, _2);
+    }
+
+    static LongLongTuple LongLongTuple(long _1, long _2)
+    {
+        return new LongLongTuple(_1, _2);
+    }
+
+    static LongDoubleTuple LongDoubleTuple(long _1, double _2)
+    {
+        return new LongDoubleTuple(_1, _2);
+    }
+
+    static DoubleIntTuple DoubleIntTuple(double _1, int _2)
+    {
+        return new DoubleIntTuple(_1, _2);
+    }
+
+    static DoubleLongTuple DoubleLongTuple(double _1, long _2)
+    {
+        return new DoubleLongTuple(_1, _2);
+    }
+
+    static DoubleDoubleTuple DoubleDoubleTuple(double _1, double _2)
+    {
+        return new DoubleDoubleTuple(_1, _2);
+    }
+
+    static <B> IntObjTuple<B> IntObjTuple(int _1, B _2)
+    {
+        return new IntObjTuple<>(_1, _2);
+    }
+
+    static <A> ObjIntTuple<A> ObjIntTuple(A _1, int _2)
+    {
+        return new ObjIntTuple<>(_1, _2);
+    }
+
+    static <B> LongObjTuple<B> LongObjTuple(long _1, B _2)
+    {
+        return new LongObjTuple<>(_1, _2);
+    }
+
+    static <A> ObjLongTuple<A> ObjLongTuple(A _1, long _2)
+    {
+        return new ObjLongTuple<>(_1, _2);
+    }
+
+    static <B> DoubleObjTuple<B> DoubleObjTuple(double _1, B _2)
+    {
+        return new DoubleObjTuple<>(_1, _2);
+    }
+
+    static <A> ObjDoubleTuple<A> ObjDoubleTuple(A _1, double _2)
+    {
+        return new ObjDoubleTuple<>(_1, _2);
+    }
+
+    static IntIntIntTuple IntIntIntTuple(int _1, int _2, int _3)
+    {
+        return new IntIntIntTuple(_1, _2, _3);
+    }
+
+    static LongLongLongTuple LongLongLongTuple(long _1, long _2, long _3)
+    {
+        return new LongLongLongTuple(_1, _2, _3);
+    }
+
+    static DoubleDoubleDoubleTuple DoubleDoubleDoubleTuple(double _1, double _2, double _3)
+    {
+        return new DoubleDoubleDoubleTuple(_1, _2, _3);
+    }
+
     @SuppressWarnings("unchecked")
     static Optional<Class<? extends Tuple>> getTupleClass(int argQty)
     {
@@ -114,4 +206,28 @@ public interface Tuple extends Collection<Object>
     }
 
     boolean extract(Object o);
+
+    /**
+     * Return the item at the given index. The default implementation iterates to the
+     * index - the Halva tuples override it with direct access.
+     *
+     * @param index zero based index
+     * @return item
+     * @throws IndexOutOfBoundsException if the index is not valid for this tuple
+     */
+    default Object get(int index)
+    {
+        if ( index >= 0 )
+        {
+            int i = 0;
+            for ( Object item : this )
+            {
+                if ( i++ == index )
+                {
+                    return item;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
 }
@@ -0,0 +1,655 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+import io.soabase.halva.tuple.details.TupleBatchRow;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ *     A growable batch of tuples of a fixed arity stored as columns (struct-of-arrays) instead of
+ *     as individual tuple objects. <code>int</code>, <code>long</code> and <code>double</code> columns
+ *     are stored in primitive arrays, all other columns in object arrays. Large numbers of rows use
+ *     a fraction of the memory of individual tuples and columns can be scanned sequentially.
+ * </p>
+ *
+ * <p>
+ *     Rows are read via {@link TupleBatchRow} views. A view is a {@link PrimitiveTuple} that
+ *     can be re-positioned to any row via {@link TupleBatchRow#at(int)} - i.e. a single view can be used
+ *     to visit every row without allocating. Views can be matched/extracted like any other tuple. Note: the
+ *     iterator of this batch returns the same view for each row.
+ * </p>
+ *
+ * <p>
+ *     Batches are not thread safe.
+ * </p>
+ */
+public final class TupleBatch implements Iterable<TupleBatchRow>
+{
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Class<?>[] columnTypes;
+    private final Object[] columns;
+    private int capacity;
+    private int size = 0;
+
+    /**
+     * Return a new batch with the given column types. <code>int.class</code>, <code>long.class</code>
+     * and <code>double.class</code> columns are stored unboxed.
+     *
+     * @param columnTypes type of each column
+     * @return new empty batch
+     */
+    public static TupleBatch of(Class<?>... columnTypes)
+    {
+        return new TupleBatch(DEFAULT_CAPACITY, columnTypes);
+    }
+
+    /**
+     * Same as {@link #of(Class[])} but with space pre-allocated for the given number of rows
+     *
+     * @param initialCapacity initial number of rows
+     * @param columnTypes type of each column
+     * @return new empty batch
+     */
+    public static TupleBatch withCapacity(int initialCapacity, Class<?>... columnTypes)
+    {
+        return new TupleBatch(initialCapacity, columnTypes);
+    }
+
+    private TupleBatch(int initialCapacity, Class<?>[] columnTypes)
+    {
+        if ( initialCapacity < 0 )
+        {
+            throw new IllegalArgumentException("initialCapacity cannot be negative: " + initialCapacity);
+        }
+        this.columnTypes = columnTypes.clone();
+        capacity = initialCapacity;
+        columns = new Object[columnTypes.length];
+        for ( int i = 0; i < columns.length; ++i )
+        {
+            columns[i] = newColumn(this.columnTypes[i], capacity);
+        }
+    }
+
+    /**
+     * @return number of columns
+     */
+    public int arity()
+    {
+        return columnTypes.length;
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param column column index
+     * @return the type of the column as given when the batch was created
+     */
+    public Class<?> getColumnType(int column)
+    {
+        return columnTypes[column];
+    }
+
+    /**
+     * @param column column index
+     * @return the primitive type of the column (<code>int.class</code>, etc.) or null if the column stores objects
+     */
+    public Class<?> getPrimitiveType(int column)
+    {
+        Class<?> type = columnTypes[column];
+        return isPrimitiveColumn(type) ? type : null;
+    }
+
+    /**
+     * Append a row with all items zero/null. Use the <code>set</code> methods to
+     * fill the row without boxing.
+     *
+     * @return index of the new row
+     */
+    public int addRow()
+    {
+        if ( size == capacity )
+        {
+            grow();
+        }
+        return size++;
+    }
+
+    /**
+     * Append a row with the given items
+     *
+     * @param items the row's items - must match the arity and column types
+     * @return this
+     */
+    public TupleBatch add(Object... items)
+    {
+        checkArity(items.length);
+        int row = addRow();
+        for ( int i = 0; i < items.length; ++i )
+        {
+            set(row, i, items[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Append a row with the items of the given tuple. Items of a {@link PrimitiveTuple} are copied unboxed.
+     *
+     * @param tuple the row's items - must match the arity and column types
+     * @return this
+     */
+    public TupleBatch add(Tuple tuple)
+    {
+        checkArity(tuple.size());
+        PrimitiveTuple primitiveTuple = (tuple instanceof PrimitiveTuple) ? (PrimitiveTuple)tuple : null;
+        int row = addRow();
+        for ( int i = 0; i < columns.length; ++i )
+        {
+            Class<?> type = columnTypes[i];
+            if ( (primitiveTuple != null) && (primitiveTuple.tuplePrimitiveType(i) == type) )
+            {
+                if ( type == Integer.TYPE )
+                {
+                    ((int[])columns[i])[row] = primitiveTuple.tupleInt(i);
+                }
+                else if ( type == Long.TYPE )
+                {
+                    ((long[])columns[i])[row] = primitiveTuple.tupleLong(i);
+                }
+                else
+                {
+                    ((double[])columns[i])[row] = primitiveTuple.tupleDouble(i);
+                }
+            }
+            else
+            {
+                set(row, i, tuple.get(i));
+            }
+        }
+        return this;
+    }
+
+    public int getInt(int row, int column)
+    {
+        return intColumn(column)[checkRow(row)];
+    }
+
+    public long getLong(int row, int column)
+    {
+        return longColumn(column)[checkRow(row)];
+    }
+
+    public double getDouble(int row, int column)
+    {
+        return doubleColumn(column)[checkRow(row)];
+    }
+
+    /**
+     * Return the item at the given row/column - primitive items are boxed
+     *
+     * @param row row index
+     * @param column column index
+     * @return item
+     */
+    public Object get(int row, int column)
+    {
+        checkRow(row);
+        Object array = columns[column];
+        Class<?> type = columnTypes[column];
+        if ( type == Integer.TYPE )
+        {
+            return ((int[])array)[row];
+        }
+        if ( type == Long.TYPE )
+        {
+            return ((long[])array)[row];
+        }
+        if ( type == Double.TYPE )
+        {
+            return ((double[])array)[row];
+        }
+        return ((Object[])array)[row];
+    }
+
+    public void setInt(int row, int column, int value)
+    {
+        intColumn(column)[checkRow(row)] = value;
+    }
+
+    public void setLong(int row, int column, long value)
+    {
+        longColumn(column)[checkRow(row)] = value;
+    }
+
+    public void setDouble(int row, int column, double value)
+    {
+        doubleColumn(column)[checkRow(row)] = value;
+    }
+
+    /**
+     * Set the item at the given row/column. Primitive columns are unboxed.
+     *
+     * @param row row index
+     * @param column column index
+     * @param value new value
+     * @throws IllegalArgumentException if the value doesn't match the column's type
+     */
+    public void set(int row, int column, Object value)
+    {
+        checkRow(row);
+        Class<?> type = columnTypes[column];
+        boolean isValid = isPrimitiveColumn(type) ? boxed(type).isInstance(value) : ((value == null) || type.isInstance(value));
+        if ( !isValid )
+        {
+            throw new IllegalArgumentException(String.format("Column %d is of type %s - value: %s", column, type.getName(), value));
+        }
+
+        Object array = columns[column];
+        if ( type == Integer.TYPE )
+        {
+            ((int[])array)[row] = (Integer)value;
+        }
+        else if ( type == Long.TYPE )
+        {
+            ((long[])array)[row] = (Long)value;
+        }
+        else if ( type == Double.TYPE )
+        {
+            ((double[])array)[row] = (Double)value;
+        }
+        else
+        {
+            ((Object[])array)[row] = value;
+        }
+    }
+
+    /**
+     * Return a new view positioned at the given row
+     *
+     * @param row row index
+     * @return view
+     */
+    public TupleBatchRow row(int row)
+    {
+        return view().at(row);
+    }
+
+    /**
+     * Return a new view positioned at the first row. Use {@link TupleBatchRow#at(int)} to move it.
+     *
+     * @return view
+     */
+    public TupleBatchRow view()
+    {
+        return new TupleBatchRow(this);
+    }
+
+    /**
+     * Returns an iterator over the rows. Each call to <code>next()</code> returns the same
+     * view re-positioned to the next row.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<TupleBatchRow> iterator()
+    {
+        TupleBatchRow view = view();
+        return new Iterator<TupleBatchRow>()
+        {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return row < size;
+            }
+
+            @Override
+            public TupleBatchRow next()
+            {
+                if ( row >= size )
+                {
+                    throw new NoSuchElementException();
+                }
+                return view.at(row++);
+            }
+        };
+    }
+
+    public IntStream ints(int column)
+    {
+        return Arrays.stream(intColumn(column), 0, size);
+    }
+
+    public LongStream longs(int column)
+    {
+        return Arrays.stream(longColumn(column), 0, size);
+    }
+
+    public DoubleStream doubles(int column)
+    {
+        return Arrays.stream(doubleColumn(column), 0, size);
+    }
+
+    /**
+     * Return a stream of the items in the given object column
+     *
+     * @param column column index
+     * @param type the column's type
+     * @return stream
+     */
+    public <T> Stream<T> objects(int column, Class<T> type)
+    {
+        if ( isPrimitiveColumn(columnTypes[column]) || !type.isAssignableFrom(columnTypes[column]) )
+        {
+            throw new IllegalArgumentException(String.format("Column %d is of type %s", column, columnTypes[column].getName()));
+        }
+        Object[] array = (Object[])columns[column];
+        return Arrays.stream(array, 0, size).map(type::cast);
+    }
+
+    /**
+     * Sort the rows ascending by the given columns. Primitive columns are compared
+     * without boxing, object columns must be {@link Comparable} (nulls sort first).
+     * The sort is stable.
+     *
+     * @param sortColumns the columns to sort by in order of precedence
+     */
+    public void sortBy(int... sortColumns)
+    {
+        for ( int column : sortColumns )
+        {
+            if ( !isPrimitiveColumn(columnTypes[column]) && !Comparable.class.isAssignableFrom(columnTypes[column]) )
+            {
+                throw new IllegalArgumentException(String.format("Column %d is not comparable: %s", column, columnTypes[column].getName()));
+            }
+        }
+        sortRows((lhs, rhs) -> {
+            for ( int column : sortColumns )
+            {
+                int result = compare(column, lhs, rhs);
+                if ( result != 0 )
+                {
+                    return result;
+                }
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * Sort the rows using the given comparator. The comparator is passed two views that
+     * are re-positioned for each comparison - they must not be retained. The sort is stable.
+     *
+     * @param comparator row comparator
+     */
+    public void sort(Comparator<? super TupleBatchRow> comparator)
+    {
+        TupleBatchRow lhsView = view();
+        TupleBatchRow rhsView = view();
+        sortRows((lhs, rhs) -> comparator.compare(lhsView.at(lhs), rhsView.at(rhs)));
+    }
+
+    @FunctionalInterface
+    private interface RowComparator
+    {
+        int compare(int lhs, int rhs);
+    }
+
+    private void sortRows(RowComparator comparator)
+    {
+        int[] order = new int[size];
+        for ( int i = 0; i < size; ++i )
+        {
+            order[i] = i;
+        }
+        mergeSort(order, new int[size], 0, size, comparator);
+
+        // apply the permutation in place by following its cycles so that sorting doesn't need a copy of the columns
+        BitSet visited = new BitSet(size);
+        for ( Object column : columns )
+        {
+            visited.clear();
+            permute(column, order, visited);
+        }
+    }
+
+    // order[row] is the (current) row that belongs at row
+    private void permute(Object array, int[] order, BitSet visited)
+    {
+        for ( int start = visited.nextClearBit(0); start < size; start = visited.nextClearBit(start + 1) )
+        {
+            if ( array instanceof int[] )
+            {
+                int[] values = (int[])array;
+                int temp = values[start];
+                int row = start;
+                for ( int from = order[row]; from != start; from = order[row] )
+                {
+                    values[row] = values[from];
+                    visited.set(row);
+                    row = from;
+                }
+                values[row] = temp;
+                visited.set(row);
+            }
+            else if ( array instanceof long[] )
+            {
+                long[] values = (long[])array;
+                long temp = values[start];
+                int row = start;
+                for ( int from = order[row]; from != start; from = order[row] )
+                {
+                    values[row] = values[from];
+                    visited.set(row);
+                    row = from;
+                }
+                values[row] = temp;
+                visited.set(row);
+            }
+            else if ( array instanceof double[] )
+            {
+                double[] values = (double[])array;
+                double temp = values[start];
+                int row = start;
+                for ( int from = order[row]; from != start; from = order[row] )
+                {
+                    values[row] = values[from];
+                    visited.set(row);
+                    row = from;
+                }
+                values[row] = temp;
+                visited.set(row);
+            }
+            else
+            {
+                Object[] values = (Object[])array;
+                Object temp = values[start];
+                int row = start;
+                for ( int from = order[row]; from != start; from = order[row] )
+                {
+                    values[row] = values[from];
+                    visited.set(row);
+                    row = from;
+                }
+                values[row] = temp;
+                visited.set(row);
+            }
+        }
+    }
+
+    private static void mergeSort(int[] order, int[] work, int from, int to, RowComparator comparator)
+    {
+        if ( (to - from) < 2 )
+        {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, work, from, middle, comparator);
+        mergeSort(order, work, middle, to, comparator);
+        if ( comparator.compare(order[middle - 1], order[middle]) <= 0 )
+        {
+            return; // already in order
+        }
+
+        System.arraycopy(order, from, work, from, to - from);
+        int lhs = from;
+        int rhs = middle;
+        for ( int i = from; i < to; ++i )
+        {
+            if ( (rhs >= to) || ((lhs < middle) && (comparator.compare(work[lhs], work[rhs]) <= 0)) )
+            {
+                order[i] = work[lhs++];
+            }
+            else
+            {
+                order[i] = work[rhs++];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(int column, int lhs, int rhs)
+    {
+        Object array = columns[column];
+        Class<?> type = columnTypes[column];
+        if ( type == Integer.TYPE )
+        {
+            return Integer.compare(((int[])array)[lhs], ((int[])array)[rhs]);
+        }
+        if ( type == Long.TYPE )
+        {
+            return Long.compare(((long[])array)[lhs], ((long[])array)[rhs]);
+        }
+        if ( type == Double.TYPE )
+        {
+            return Double.compare(((double[])array)[lhs], ((double[])array)[rhs]);
+        }
+        Comparable<Object> lhsItem = (Comparable<Object>)((Object[])array)[lhs];
+        Object rhsItem = ((Object[])array)[rhs];
+        if ( (lhsItem == null) || (rhsItem == null) )
+        {
+            return (lhsItem == null) ? ((rhsItem == null) ? 0 : -1) : 1;
+        }
+        return lhsItem.compareTo(rhsItem);
+    }
+
+    private void grow()
+    {
+        capacity = Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1));
+        for ( int i = 0; i < columns.length; ++i )
+        {
+            Object array = columns[i];
+            Object grown = newColumn(columnTypes[i], capacity);
+            //noinspection SuspiciousSystemArraycopy
+            System.arraycopy(array, 0, grown, 0, size);
+            columns[i] = grown;
+        }
+    }
+
+    private static boolean isPrimitiveColumn(Class<?> type)
+    {
+        return (type == Integer.TYPE) || (type == Long.TYPE) || (type == Double.TYPE);
+    }
+
+    private static Class<?> boxed(Class<?> type)
+    {
+        if ( type == Integer.TYPE )
+        {
+            return Integer.class;
+        }
+        return (type == Long.TYPE) ? Long.class : Double.class;
+    }
+
+    private static Object newColumn(Class<?> type, int capacity)
+    {
+        if ( type == Integer.TYPE )
+        {
+            return new int[capacity];
+        }
+        if ( type == Long.TYPE )
+        {
+            return new long[capacity];
+        }
+        if ( type == Double.TYPE )
+        {
+            return new double[capacity];
+        }
+        if ( type.isPrimitive() )
+        {
+            throw new IllegalArgumentException("Only int, long and double primitive columns are supported: " + type);
+        }
+        return new Object[capacity];
+    }
+
+    private int[] intColumn(int column)
+    {
+        checkColumnType(column, Integer.TYPE);
+        return (int[])columns[column];
+    }
+
+    private long[] longColumn(int column)
+    {
+        checkColumnType(column, Long.TYPE);
+        return (long[])columns[column];
+    }
+
+    private double[] doubleColumn(int column)
+    {
+        checkColumnType(column, Double.TYPE);
+        return (double[])columns[column];
+    }
+
+    private void checkColumnType(int column, Class<?> type)
+    {
+        if ( columnTypes[column] != type )
+        {
+            throw new IllegalArgumentException(String.format("Column %d is of type %s not %s", column, columnTypes[column].getName(), type.getName()));
+        }
+    }
+
+    private int checkRow(int row)
+    {
+        if ( (row < 0) || (row >= size) )
+        {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+        return row;
+    }
+
+    private void checkArity(int qty)
+    {
+        if ( qty != columns.length )
+        {
+            throw new IllegalArgumentException(String.format("Expected %d items but got %d", columns.length, qty));
+        }
+    }
+}
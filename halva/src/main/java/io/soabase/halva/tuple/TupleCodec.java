@@ -0,0 +1,786 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ *     Compact binary encoding of tuples. A tuple is written as its size followed by each
+ *     item as a one byte type tag and the item's value. <code>int</code>s and <code>long</code>s are
+ *     written as zig-zag varints (small values, positive or negative, take 1 or 2 bytes), strings
+ *     as their UTF-8 bytes. Supported items: null, Boolean, Integer, Long, Double, String, byte[] and nested
+ *     tuples. Items of {@link PrimitiveTuple}s are written without boxing.
+ * </p>
+ *
+ * <p>
+ *     Other types can be supported by registering an {@link ElementCodec} via {@link #with(int, Class, ElementCodec)}.
+ *     Codecs are immutable and thread safe (as long as the registered element codecs are).
+ * </p>
+ *
+ * <p>
+ *     Tuples can be written to/read from a {@link ByteBuffer} (heap or direct) or a {@link DataOutput}/{@link DataInput}.
+ *     Buffers are read in place - numbers are read directly from the buffer and strings in heap buffers are
+ *     decoded directly from the backing array.
+ * </p>
+ *
+ * <p>
+ *     Reading validates the data: lengths are checked against the remaining bytes of a buffer before anything is
+ *     allocated (a {@link DataInput} is read in chunks as the length can't be checked up front), ints must be in range
+ *     and tuples can be nested at most {@link #MAX_DEPTH} levels deep.
+ * </p>
+ */
+public final class TupleCodec
+{
+    /**
+     * Smallest tag that can be used for a registered element codec. Tags below this are reserved.
+     */
+    public static final int MIN_CUSTOM_TAG = 16;
+
+    /**
+     * Largest tag that can be used for a registered element codec
+     */
+    public static final int MAX_CUSTOM_TAG = 255;
+
+    /**
+     * Maximum nesting of tuples within tuples (the top level tuple is level 1)
+     */
+    public static final int MAX_DEPTH = 64;
+
+    // byte arrays/strings read from a DataInput are allocated in chunks of (at least) this size
+    private static final int DATA_INPUT_CHUNK = 8192;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_BYTES = 7;
+    private static final int TAG_TUPLE = 8;
+
+    private static final TupleCodec standard = new TupleCodec(Collections.emptyList());
+
+    private final List<Registration<?>> registrations;
+    private final Registration<?>[] registrationsByTag;
+
+    /**
+     * Writes the values of a custom element type
+     */
+    public interface ElementCodec<T>
+    {
+        void write(T value, Output out) throws IOException;
+
+        T read(Input in) throws IOException;
+    }
+
+    /**
+     * Destination of encoded values - passed to {@link ElementCodec}s
+     */
+    public interface Output
+    {
+        void writeByte(int value) throws IOException;
+
+        /**
+         * Write a zig-zag varint
+         *
+         * @param value value
+         * @throws IOException errors
+         */
+        void writeVarLong(long value) throws IOException;
+
+        void writeDouble(double value) throws IOException;
+
+        void writeString(String value) throws IOException;
+
+        void writeBytes(byte[] value) throws IOException;
+
+        /**
+         * Write a tagged item - any item supported by the codec
+         *
+         * @param item item
+         * @throws IOException errors
+         */
+        void writeItem(Object item) throws IOException;
+    }
+
+    /**
+     * Source of encoded values - passed to {@link ElementCodec}s
+     */
+    public interface Input
+    {
+        int readByte() throws IOException;
+
+        long readVarLong() throws IOException;
+
+        double readDouble() throws IOException;
+
+        String readString() throws IOException;
+
+        byte[] readBytes() throws IOException;
+
+        Object readItem() throws IOException;
+    }
+
+    /**
+     * @return codec for the standard types
+     */
+    public static TupleCodec standard()
+    {
+        return standard;
+    }
+
+    /**
+     * Return a new codec that has all the element codecs of this codec plus the given one. When writing,
+     * items whose class is exactly <code>type</code> use the codec - otherwise the first registered codec whose type
+     * is assignable from the item's class is used.
+     *
+     * @param tag tag that identifies the type in the encoding - {@link #MIN_CUSTOM_TAG} to {@link #MAX_CUSTOM_TAG}
+     * @param type the element type
+     * @param codec codec for the type
+     * @return new codec
+     * @throws IllegalArgumentException if the tag is out of range or already registered
+     */
+    public <T> TupleCodec with(int tag, Class<T> type, ElementCodec<T> codec)
+    {
+        if ( (tag < MIN_CUSTOM_TAG) || (tag > MAX_CUSTOM_TAG) )
+        {
+            throw new IllegalArgumentException(String.format("Tag must be between %d and %d: %d", MIN_CUSTOM_TAG, MAX_CUSTOM_TAG, tag));
+        }
+        if ( registrationsByTag[tag] != null )
+        {
+            throw new IllegalArgumentException("Tag is already registered: " + tag);
+        }
+        List<Registration<?>> newRegistrations = new ArrayList<>(registrations);
+        newRegistrations.add(new Registration<>(tag, type, codec));
+        return new TupleCodec(newRegistrations);
+    }
+
+    /**
+     * Write the tuple at the buffer's current position
+     *
+     * @param tuple tuple to write
+     * @param buffer destination
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     * @throws IllegalArgumentException if an item is not supported or the tuples are nested too deeply
+     */
+    public void write(Tuple tuple, ByteBuffer buffer)
+    {
+        try
+        {
+            writeTuple(tuple, new BufferOutput(buffer));
+        }
+        catch ( IOException e )
+        {
+            // only possible from an element codec
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the tuple to the given output
+     *
+     * @param tuple tuple to write
+     * @param out destination
+     * @throws IOException errors
+     * @throws IllegalArgumentException if an item is not supported or the tuples are nested too deeply
+     */
+    public void write(Tuple tuple, DataOutput out) throws IOException
+    {
+        writeTuple(tuple, new DataOutputOutput(out));
+    }
+
+    /**
+     * Encode the tuple into a new byte array
+     *
+     * @param tuple tuple to write
+     * @return encoded tuple
+     */
+    public byte[] toBytes(Tuple tuple)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try
+        {
+            write(tuple, new DataOutputStream(bytes));
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a tuple from the buffer's current position. The position is advanced past the tuple.
+     *
+     * @param buffer source
+     * @return tuple
+     * @throws java.nio.BufferUnderflowException if the buffer doesn't contain a complete tuple (including when
+     * a length is larger than the remaining bytes)
+     * @throws IllegalArgumentException if the data is not a valid encoding
+     */
+    public Tuple read(ByteBuffer buffer)
+    {
+        try
+        {
+            return readTuple(new BufferInput(buffer));
+        }
+        catch ( IOException e )
+        {
+            // only possible from an element codec
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read a tuple from the given input
+     *
+     * @param in source
+     * @return tuple
+     * @throws IOException errors (e.g. {@link java.io.EOFException} if the input doesn't contain a complete tuple)
+     * @throws IllegalArgumentException if the data is not a valid encoding
+     */
+    public Tuple read(DataInput in) throws IOException
+    {
+        return readTuple(new DataInputInput(in));
+    }
+
+    /**
+     * Decode a tuple encoded via {@link #toBytes(Tuple)}
+     *
+     * @param bytes encoded tuple
+     * @return tuple
+     */
+    public Tuple fromBytes(byte[] bytes)
+    {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    private TupleCodec(List<Registration<?>> registrations)
+    {
+        this.registrations = registrations;
+        registrationsByTag = new Registration<?>[MAX_CUSTOM_TAG + 1];
+        registrations.forEach(registration -> registrationsByTag[registration.tag] = registration);
+    }
+
+    private static class Registration<T>
+    {
+        private final int tag;
+        private final Class<T> type;
+        private final ElementCodec<T> codec;
+
+        Registration(int tag, Class<T> type, ElementCodec<T> codec)
+        {
+            this.tag = tag;
+            this.type = type;
+            this.codec = codec;
+        }
+
+        void write(Object value, Output out) throws IOException
+        {
+            out.writeByte(tag);
+            codec.write(type.cast(value), out);
+        }
+    }
+
+    private void writeTuple(Tuple tuple, OutputBase out) throws IOException
+    {
+        // never write what can't be read
+        out.enterTuple();
+        try
+        {
+            writeTupleItems(tuple, out);
+        }
+        finally
+        {
+            out.exitTuple();
+        }
+    }
+
+    private void writeTupleItems(Tuple tuple, OutputBase out) throws IOException
+    {
+        int size = tuple.size();
+        out.writeVarLong(size);
+        PrimitiveTuple primitiveTuple = (tuple instanceof PrimitiveTuple) ? (PrimitiveTuple)tuple : null;
+        for ( int i = 0; i < size; ++i )
+        {
+            Class<?> primitiveType = (primitiveTuple != null) ? primitiveTuple.tuplePrimitiveType(i) : null;
+            if ( primitiveType == Integer.TYPE )
+            {
+                out.writeByte(TAG_INT);
+                out.writeVarLong(primitiveTuple.tupleInt(i));
+            }
+            else if ( primitiveType == Long.TYPE )
+            {
+                out.writeByte(TAG_LONG);
+                out.writeVarLong(primitiveTuple.tupleLong(i));
+            }
+            else if ( primitiveType == Double.TYPE )
+            {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(primitiveTuple.tupleDouble(i));
+            }
+            else
+            {
+                writeItem(tuple.get(i), out);
+            }
+        }
+    }
+
+    private void writeItem(Object item, OutputBase out) throws IOException
+    {
+        if ( item == null )
+        {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+
+        Class<?> itemClass = item.getClass();
+        if ( itemClass == Integer.class )
+        {
+            out.writeByte(TAG_INT);
+            out.writeVarLong((Integer)item);
+        }
+        else if ( itemClass == Long.class )
+        {
+            out.writeByte(TAG_LONG);
+            out.writeVarLong((Long)item);
+        }
+        else if ( itemClass == Double.class )
+        {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double)item);
+        }
+        else if ( itemClass == String.class )
+        {
+            out.writeByte(TAG_STRING);
+            out.writeString((String)item);
+        }
+        else if ( itemClass == Boolean.class )
+        {
+            out.writeByte((Boolean)item ? TAG_TRUE : TAG_FALSE);
+        }
+        else if ( itemClass == byte[].class )
+        {
+            out.writeByte(TAG_BYTES);
+            out.writeBytes((byte[])item);
+        }
+        else
+        {
+            Registration<?> registration = findRegistration(itemClass);
+            if ( registration != null )
+            {
+                registration.write(item, out);
+            }
+            else if ( item instanceof Tuple )
+            {
+                out.writeByte(TAG_TUPLE);
+                writeTuple((Tuple)item, out);
+            }
+            else
+            {
+                throw new IllegalArgumentException("No codec for item type: " + itemClass.getName());
+            }
+        }
+    }
+
+    private Registration<?> findRegistration(Class<?> itemClass)
+    {
+        for ( Registration<?> registration : registrations )
+        {
+            if ( registration.type == itemClass )
+            {
+                return registration;
+            }
+        }
+        for ( Registration<?> registration : registrations )
+        {
+            if ( registration.type.isAssignableFrom(itemClass) )
+            {
+                return registration;
+            }
+        }
+        return null;
+    }
+
+    private Tuple readTuple(InputBase in) throws IOException
+    {
+        in.enterTuple();
+        try
+        {
+            return readTupleItems(in);
+        }
+        finally
+        {
+            in.exitTuple();
+        }
+    }
+
+    private Tuple readTupleItems(InputBase in) throws IOException
+    {
+        long size = in.readVarLong();
+        if ( (size < 0) || (size > 16) )
+        {
+            throw new IllegalArgumentException("Invalid tuple size: " + size);
+        }
+        Object[] items = new Object[(int)size];
+        for ( int i = 0; i < items.length; ++i )
+        {
+            items[i] = readItem(in);
+        }
+        return tupleOf(items);
+    }
+
+    private Object readItem(InputBase in) throws IOException
+    {
+        int tag = in.readByte();
+        switch ( tag )
+        {
+            case TAG_NULL: return null;
+            case TAG_FALSE: return Boolean.FALSE;
+            case TAG_TRUE: return Boolean.TRUE;
+            case TAG_INT: return readInt(in);
+            case TAG_LONG: return in.readVarLong();
+            case TAG_DOUBLE: return in.readDouble();
+            case TAG_STRING: return in.readString();
+            case TAG_BYTES: return in.readBytes();
+            case TAG_TUPLE: return readTuple(in);
+        }
+
+        Registration<?> registration = registrationsByTag[tag];
+        if ( registration == null )
+        {
+            throw new IllegalArgumentException("Unknown tag: " + tag);
+        }
+        return registration.codec.read(in);
+    }
+
+    private static int readInt(Input in) throws IOException
+    {
+        long value = in.readVarLong();
+        if ( (int)value != value )
+        {
+            throw new IllegalArgumentException("Invalid int: " + value);
+        }
+        return (int)value;
+    }
+
+    private static Tuple tupleOf(Object[] items)
+    {
+        switch ( items.length )
+        {
+            case 0: return Tuple.Tu();
+            case 1: return Tuple.Tu(items[0]);
+            case 2: return Tuple.Tu(items[0], items[1]);
+            case 3: return Tuple.Tu(items[0], items[1], items[2]);
+            case 4: return Tuple.Tu(items[0], items[1], items[2], items[3]);
+            case 5: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4]);
+            case 6: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5]);
+            case 7: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6]);
+            case 8: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7]);
+            case 9: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8]);
+            case 10: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9]);
+            case 11: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9], items[10]);
+            case 12: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9], items[10], items[11]);
+            case 13: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9], items[10], items[11], items[12]);
+            case 14: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9], items[10], items[11], items[12], items[13]);
+            case 15: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9], items[10], items[11], items[12], items[13], items[14]);
+            case 16: return Tuple.Tu(items[0], items[1], items[2], items[3], items[4], items[5], items[6], items[7], items[8], items[9], items[10], items[11], items[12], items[13], items[14], items[15]);
+        }
+        throw new IllegalArgumentException("Invalid tuple size: " + items.length);
+    }
+
+    private static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int checkLength(long length)
+    {
+        if ( (length < 0) || (length > Integer.MAX_VALUE) )
+        {
+            throw new IllegalArgumentException("Invalid length: " + length);
+        }
+        return (int)length;
+    }
+
+    private static int checkDepth(int depth)
+    {
+        if ( depth > MAX_DEPTH )
+        {
+            throw new IllegalArgumentException("Tuples are nested more than " + MAX_DEPTH + " levels deep");
+        }
+        return depth;
+    }
+
+    private abstract class OutputBase implements Output
+    {
+        private int depth = 0;
+
+        void enterTuple()
+        {
+            depth = checkDepth(depth + 1);
+        }
+
+        void exitTuple()
+        {
+            --depth;
+        }
+
+        @Override
+        public void writeVarLong(long value) throws IOException
+        {
+            long encoded = zigZag(value);
+            while ( (encoded & ~0x7FL) != 0 )
+            {
+                writeByte((int)((encoded & 0x7F) | 0x80));
+                encoded >>>= 7;
+            }
+            writeByte((int)encoded);
+        }
+
+        @Override
+        public void writeString(String value) throws IOException
+        {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeItem(Object item) throws IOException
+        {
+            TupleCodec.this.writeItem(item, this);
+        }
+    }
+
+    private class BufferOutput extends OutputBase
+    {
+        private final ByteBuffer buffer;
+
+        BufferOutput(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void writeByte(int value)
+        {
+            buffer.put((byte)value);
+        }
+
+        @Override
+        public void writeDouble(double value)
+        {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public void writeBytes(byte[] value) throws IOException
+        {
+            writeVarLong(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private class DataOutputOutput extends OutputBase
+    {
+        private final DataOutput out;
+
+        DataOutputOutput(DataOutput out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public void writeByte(int value) throws IOException
+        {
+            out.writeByte(value);
+        }
+
+        @Override
+        public void writeDouble(double value) throws IOException
+        {
+            out.writeDouble(value);
+        }
+
+        @Override
+        public void writeBytes(byte[] value) throws IOException
+        {
+            writeVarLong(value.length);
+            out.write(value);
+        }
+    }
+
+    private abstract class InputBase implements Input
+    {
+        private int depth = 0;
+
+        void enterTuple()
+        {
+            depth = checkDepth(depth + 1);
+        }
+
+        void exitTuple()
+        {
+            --depth;
+        }
+
+        @Override
+        public long readVarLong() throws IOException
+        {
+            long encoded = 0;
+            for ( int shift = 0; shift < 64; shift += 7 )
+            {
+                int b = readByte();
+                encoded |= (long)(b & 0x7F) << shift;
+                if ( (b & 0x80) == 0 )
+                {
+                    return unZigZag(encoded);
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        @Override
+        public Object readItem() throws IOException
+        {
+            return TupleCodec.this.readItem(this);
+        }
+    }
+
+    private class BufferInput extends InputBase
+    {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int readByte()
+        {
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public double readDouble()
+        {
+            return buffer.getDouble();
+        }
+
+        @Override
+        public String readString() throws IOException
+        {
+            int length = readLength();
+            if ( buffer.hasArray() )
+            {
+                // decode directly from the backing array
+                int position = buffer.position();
+                String value = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+                buffer.position(position + length);
+                return value;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] readBytes() throws IOException
+        {
+            byte[] bytes = new byte[readLength()];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private int readLength() throws IOException
+        {
+            // check before allocating - a corrupt length must not cause a huge allocation
+            int length = checkLength(readVarLong());
+            if ( length > buffer.remaining() )
+            {
+                throw new BufferUnderflowException();
+            }
+            return length;
+        }
+    }
+
+    private class DataInputInput extends InputBase
+    {
+        private final DataInput in;
+
+        DataInputInput(DataInput in)
+        {
+            this.in = in;
+        }
+
+        @Override
+        public int readByte() throws IOException
+        {
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        public double readDouble() throws IOException
+        {
+            return in.readDouble();
+        }
+
+        @Override
+        public String readString() throws IOException
+        {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] readBytes() throws IOException
+        {
+            // the length can't be checked against the available bytes - grow the array as the bytes
+            // arrive so that a corrupt length fails with an EOFException instead of a huge allocation
+            int length = checkLength(readVarLong());
+            byte[] bytes = new byte[Math.min(length, DATA_INPUT_CHUNK)];
+            int count = 0;
+            for(;;)
+            {
+                in.readFully(bytes, count, bytes.length - count);
+                count = bytes.length;
+                if ( count == length )
+                {
+                    return bytes;
+                }
+                bytes = Arrays.copyOf(bytes, (int)Math.min(length, count * 2L));
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+// Auto generated from io.soabase.halva.tuple.details.DoubleDoubleDoubleTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.Double;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class DoubleDoubleDoubleTuple extends TupleImpl implements PrimitiveTuple {
+    public final double _1;
+
+    public final double _2;
+
+    public final double _3;
+
+    public DoubleDoubleDoubleTuple(double _1, double _2, double _3) {
+        this._1 = _1;
+        this._2 = _2;
+        this._3 = _3;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 3");
+    }
+
+    @Override
+    public int size() {
+        return 3;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Double.TYPE;
+            case 1: return Double.TYPE;
+            case 2: return Double.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public double tupleDouble(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        return PrimitiveTuple.super.tupleDouble(index);
+    }
+}
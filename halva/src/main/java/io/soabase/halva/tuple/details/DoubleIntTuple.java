@@ -0,0 +1,66 @@
+// Auto generated from io.soabase.halva.tuple.details.DoubleIntTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.Double;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class DoubleIntTuple extends TupleImpl implements PrimitiveTuple {
+    public final double _1;
+
+    public final int _2;
+
+    public DoubleIntTuple(double _1, int _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Double.TYPE;
+            case 1: return Integer.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public int tupleInt(int index) {
+        switch ( index ) {
+            case 1: return _2;
+        }
+        return PrimitiveTuple.super.tupleInt(index);
+    }
+
+    @Override
+    public double tupleDouble(int index) {
+        switch ( index ) {
+            case 0: return _1;
+        }
+        return PrimitiveTuple.super.tupleDouble(index);
+    }
+
+    public IntDoubleTuple swap() {
+        return new IntDoubleTuple(_2, _1);
+    }
+}
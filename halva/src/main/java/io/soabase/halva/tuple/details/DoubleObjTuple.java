@@ -0,0 +1,56 @@
+// Auto generated from io.soabase.halva.tuple.details.DoubleObjTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.Double;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class DoubleObjTuple<B> extends TupleImpl implements PrimitiveTuple {
+    public final double _1;
+
+    public final B _2;
+
+    public DoubleObjTuple(double _1, B _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Double.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public double tupleDouble(int index) {
+        switch ( index ) {
+            case 0: return _1;
+        }
+        return PrimitiveTuple.super.tupleDouble(index);
+    }
+
+    public ObjDoubleTuple<B> swap() {
+        return new ObjDoubleTuple<>(_2, _1);
+    }
+}
@@ -0,0 +1,66 @@
+// Auto generated from io.soabase.halva.tuple.details.IntDoubleTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.Double;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class IntDoubleTuple extends TupleImpl implements PrimitiveTuple {
+    public final int _1;
+
+    public final double _2;
+
+    public IntDoubleTuple(int _1, double _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Integer.TYPE;
+            case 1: return Double.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public int tupleInt(int index) {
+        switch ( index ) {
+            case 0: return _1;
+        }
+        return PrimitiveTuple.super.tupleInt(index);
+    }
+
+    @Override
+    public double tupleDouble(int index) {
+        switch ( index ) {
+            case 1: return _2;
+        }
+        return PrimitiveTuple.super.tupleDouble(index);
+    }
+
+    public DoubleIntTuple swap() {
+        return new DoubleIntTuple(_2, _1);
+    }
+}
@@ -0,0 +1,60 @@
+// Auto generated from io.soabase.halva.tuple.details.IntIntIntTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class IntIntIntTuple extends TupleImpl implements PrimitiveTuple {
+    public final int _1;
+
+    public final int _2;
+
+    public final int _3;
+
+    public IntIntIntTuple(int _1, int _2, int _3) {
+        this._1 = _1;
+        this._2 = _2;
+        this._3 = _3;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 3");
+    }
+
+    @Override
+    public int size() {
+        return 3;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Integer.TYPE;
+            case 1: return Integer.TYPE;
+            case 2: return Integer.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public int tupleInt(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        return PrimitiveTuple.super.tupleInt(index);
+    }
+}
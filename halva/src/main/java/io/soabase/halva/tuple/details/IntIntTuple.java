@@ -0,0 +1,58 @@
+// Auto generated from io.soabase.halva.tuple.details.IntIntTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class IntIntTuple extends TupleImpl implements PrimitiveTuple {
+    public final int _1;
+
+    public final int _2;
+
+    public IntIntTuple(int _1, int _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Integer.TYPE;
+            case 1: return Integer.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public int tupleInt(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        return PrimitiveTuple.super.tupleInt(index);
+    }
+
+    public IntIntTuple swap() {
+        return new IntIntTuple(_2, _1);
+    }
+}
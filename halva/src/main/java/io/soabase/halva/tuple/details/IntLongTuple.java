@@ -0,0 +1,66 @@
+// Auto generated from io.soabase.halva.tuple.details.IntLongTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Integer;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class IntLongTuple extends TupleImpl implements PrimitiveTuple {
+    public final int _1;
+
+    public final long _2;
+
+    public IntLongTuple(int _1, long _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Integer.TYPE;
+            case 1: return Long.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public int tupleInt(int index) {
+        switch ( index ) {
+            case 0: return _1;
+        }
+        return PrimitiveTuple.super.tupleInt(index);
+    }
+
+    @Override
+    public long tupleLong(int index) {
+        switch ( index ) {
+            case 1: return _2;
+        }
+        return PrimitiveTuple.super.tupleLong(index);
+    }
+
+    public LongIntTuple swap() {
+        return new LongIntTuple(_2, _1);
+    }
+}
@@ -0,0 +1,66 @@
+// Auto generated from io.soabase.halva.tuple.details.LongDoubleTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.Double;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class LongDoubleTuple extends TupleImpl implements PrimitiveTuple {
+    public final long _1;
+
+    public final double _2;
+
+    public LongDoubleTuple(long _1, double _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Long.TYPE;
+            case 1: return Double.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public long tupleLong(int index) {
+        switch ( index ) {
+            case 0: return _1;
+        }
+        return PrimitiveTuple.super.tupleLong(index);
+    }
+
+    @Override
+    public double tupleDouble(int index) {
+        switch ( index ) {
+            case 1: return _2;
+        }
+        return PrimitiveTuple.super.tupleDouble(index);
+    }
+
+    public DoubleLongTuple swap() {
+        return new DoubleLongTuple(_2, _1);
+    }
+}
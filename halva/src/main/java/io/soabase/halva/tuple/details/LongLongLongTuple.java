@@ -0,0 +1,60 @@
+// Auto generated from io.soabase.halva.tuple.details.LongLongLongTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class LongLongLongTuple extends TupleImpl implements PrimitiveTuple {
+    public final long _1;
+
+    public final long _2;
+
+    public final long _3;
+
+    public LongLongLongTuple(long _1, long _2, long _3) {
+        this._1 = _1;
+        this._2 = _2;
+        this._3 = _3;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 3");
+    }
+
+    @Override
+    public int size() {
+        return 3;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Long.TYPE;
+            case 1: return Long.TYPE;
+            case 2: return Long.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public long tupleLong(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        return PrimitiveTuple.super.tupleLong(index);
+    }
+}
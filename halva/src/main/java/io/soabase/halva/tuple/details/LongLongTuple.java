@@ -0,0 +1,58 @@
+// Auto generated from io.soabase.halva.tuple.details.LongLongTuple_ by Soabase io.soabase.halva.tuple.details.PrimitiveTupleTemplate annotation processor
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import java.lang.Class;
+import java.lang.IndexOutOfBoundsException;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import javax.annotation.Generated;
+
+@Generated("io.soabase.halva.tuple.details.PrimitiveTupleTemplate")
+public class LongLongTuple extends TupleImpl implements PrimitiveTuple {
+    public final long _1;
+
+    public final long _2;
+
+    public LongLongTuple(long _1, long _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index) {
+        switch ( index ) {
+            case 0: return Long.TYPE;
+            case 1: return Long.TYPE;
+        }
+        return null;
+    }
+
+    @Override
+    public long tupleLong(int index) {
+        switch ( index ) {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        return PrimitiveTuple.super.tupleLong(index);
+    }
+
+    public LongLongTuple swap() {
+        return new LongLongTuple(_2, _1);
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple.details;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Internal - marks the template of one of the primitive tuples of this package. The template is an interface
+ * named for the tuple plus "_" with a method for each item (<code>_1()</code>, <code>_2()</code>, ...) that
+ * returns the type of the item. e.g. <code>interface IntObjTuple_&lt;B&gt;{int _1(); B _2();}</code>. The templates
+ * are in halva-test - the tuples generated from them are copied into this package by the build.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface PrimitiveTupleTemplate
+{
+}
@@ -17,4 +17,15 @@ package io.soabase.halva.tuple.details;
 
 public class Tuple0 extends TupleImpl
 {
+    @Override
+    public Object get(int index)
+    {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
+
+    @Override
+    public int size()
+    {
+        return 0;
+    }
 }
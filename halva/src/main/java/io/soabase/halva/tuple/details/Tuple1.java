@@ -21,7 +21,22 @@ public class Tuple1<A> extends TupleImpl
 
     public Tuple1(A _1)
     {
-        super(_1);
         this._1 = _1;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 1");
+    }
+
+    @Override
+    public int size()
+    {
+        return 1;
+    }
 }
@@ -30,7 +30,6 @@ public class Tuple10<A, B, C, D, E, F, G, H, I, J> extends TupleImpl
 
     public Tuple10(A _1, B _2, C _3, D _4, E _5, F _6, G _7, H _8, I _9, J _10)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -42,4 +41,29 @@ public class Tuple10<A, B, C, D, E, F, G, H, I, J> extends TupleImpl
         this._9 = _9;
         this._10 = _10;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+            case 7: return _8;
+            case 8: return _9;
+            case 9: return _10;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 10");
+    }
+
+    @Override
+    public int size()
+    {
+        return 10;
+    }
 }
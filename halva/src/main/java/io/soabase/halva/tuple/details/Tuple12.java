@@ -32,7 +32,6 @@ public class Tuple12<A, B, C, D, E, F, G, H, I, J, K, L> extends TupleImpl
 
     public Tuple12(A _1, B _2, C _3, D _4, E _5, F _6, G _7, H _8, I _9, J _10, K _11, L _12)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -46,4 +45,31 @@ public class Tuple12<A, B, C, D, E, F, G, H, I, J, K, L> extends TupleImpl
         this._11 = _11;
         this._12 = _12;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+            case 7: return _8;
+            case 8: return _9;
+            case 9: return _10;
+            case 10: return _11;
+            case 11: return _12;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 12");
+    }
+
+    @Override
+    public int size()
+    {
+        return 12;
+    }
 }
@@ -33,7 +33,6 @@ public class Tuple13<A, B, C, D, E, F, G, H, I, J, K, L, M> extends TupleImpl
 
     public Tuple13(A _1, B _2, C _3, D _4, E _5, F _6, G _7, H _8, I _9, J _10, K _11, L _12, M _13)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -48,4 +47,32 @@ public class Tuple13<A, B, C, D, E, F, G, H, I, J, K, L, M> extends TupleImpl
         this._12 = _12;
         this._13 = _13;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+            case 7: return _8;
+            case 8: return _9;
+            case 9: return _10;
+            case 10: return _11;
+            case 11: return _12;
+            case 12: return _13;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 13");
+    }
+
+    @Override
+    public int size()
+    {
+        return 13;
+    }
 }
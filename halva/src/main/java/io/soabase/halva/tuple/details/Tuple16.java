@@ -36,7 +36,6 @@ public class Tuple16<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P> extends Tup
 
     public Tuple16(A _1, B _2, C _3, D _4, E _5, F _6, G _7, H _8, I _9, J _10, K _11, L _12, M _13, N _14, O _15, P _16)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -54,4 +53,35 @@ public class Tuple16<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P> extends Tup
         this._15 = _15;
         this._16 = _16;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+            case 7: return _8;
+            case 8: return _9;
+            case 9: return _10;
+            case 10: return _11;
+            case 11: return _12;
+            case 12: return _13;
+            case 13: return _14;
+            case 14: return _15;
+            case 15: return _16;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 16");
+    }
+
+    @Override
+    public int size()
+    {
+        return 16;
+    }
 }
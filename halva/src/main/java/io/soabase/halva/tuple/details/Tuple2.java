@@ -22,11 +22,27 @@ public class Tuple2<A, B> extends TupleImpl
 
     public Tuple2(A _1, B _2)
     {
-        super(_1, _2);
         this._1 = _1;
         this._2 = _2;
     }
 
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+    }
+
+    @Override
+    public int size()
+    {
+        return 2;
+    }
+
     public Tuple2<B, A> swap()
     {
         return new Tuple2<>(_2, _1);
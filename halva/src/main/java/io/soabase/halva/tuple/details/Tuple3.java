@@ -23,9 +23,26 @@ public class Tuple3<A, B, C> extends TupleImpl
 
     public Tuple3(A _1, B _2, C _3)
     {
-        super(_1, _2, _3);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 3");
+    }
+
+    @Override
+    public int size()
+    {
+        return 3;
+    }
 }
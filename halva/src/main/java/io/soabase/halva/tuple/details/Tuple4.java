@@ -24,10 +24,28 @@ public class Tuple4<A, B, C, D> extends TupleImpl
 
     public Tuple4(A _1, B _2, C _3, D _4)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
         this._4 = _4;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 4");
+    }
+
+    @Override
+    public int size()
+    {
+        return 4;
+    }
 }
@@ -25,11 +25,30 @@ public class Tuple5<A, B, C, D, E> extends TupleImpl
 
     public Tuple5(A _1, B _2, C _3, D _4, E _5)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
         this._4 = _4;
         this._5 = _5;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 5");
+    }
+
+    @Override
+    public int size()
+    {
+        return 5;
+    }
 }
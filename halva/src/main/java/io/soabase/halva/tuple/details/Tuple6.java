@@ -26,7 +26,6 @@ public class Tuple6<A, B, C, D, E, F> extends TupleImpl
 
     public Tuple6(A _1, B _2, C _3, D _4, E _5, F _6)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -34,4 +33,25 @@ public class Tuple6<A, B, C, D, E, F> extends TupleImpl
         this._5 = _5;
         this._6 = _6;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 6");
+    }
+
+    @Override
+    public int size()
+    {
+        return 6;
+    }
 }
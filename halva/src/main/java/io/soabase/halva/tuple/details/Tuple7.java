@@ -27,7 +27,6 @@ public class Tuple7<A, B, C, D, E, F, G> extends TupleImpl
 
     public Tuple7(A _1, B _2, C _3, D _4, E _5, F _6, G _7)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -36,4 +35,26 @@ public class Tuple7<A, B, C, D, E, F, G> extends TupleImpl
         this._6 = _6;
         this._7 = _7;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 7");
+    }
+
+    @Override
+    public int size()
+    {
+        return 7;
+    }
 }
@@ -28,7 +28,6 @@ public class Tuple8<A, B, C, D, E, F, G, H> extends TupleImpl
 
     public Tuple8(A _1, B _2, C _3, D _4, E _5, F _6, G _7, H _8)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -38,4 +37,27 @@ public class Tuple8<A, B, C, D, E, F, G, H> extends TupleImpl
         this._7 = _7;
         this._8 = _8;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+            case 7: return _8;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 8");
+    }
+
+    @Override
+    public int size()
+    {
+        return 8;
+    }
 }
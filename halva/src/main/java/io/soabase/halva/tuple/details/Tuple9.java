@@ -29,7 +29,6 @@ public class Tuple9<A, B, C, D, E, F, G, H, I> extends TupleImpl
 
     public Tuple9(A _1, B _2, C _3, D _4, E _5, F _6, G _7, H _8, I _9)
     {
-        super(_1, _2, _3, _4);
         this._1 = _1;
         this._2 = _2;
         this._3 = _3;
@@ -40,4 +39,28 @@ public class Tuple9<A, B, C, D, E, F, G, H, I> extends TupleImpl
         this._8 = _8;
         this._9 = _9;
     }
+
+    @Override
+    public Object get(int index)
+    {
+        switch ( index )
+        {
+            case 0: return _1;
+            case 1: return _2;
+            case 2: return _3;
+            case 3: return _4;
+            case 4: return _5;
+            case 5: return _6;
+            case 6: return _7;
+            case 7: return _8;
+            case 8: return _9;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: 9");
+    }
+
+    @Override
+    public int size()
+    {
+        return 9;
+    }
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.PrimitiveTuple;
+import io.soabase.halva.tuple.TupleBatch;
+
+/**
+ * A re-positionable view of one row of a {@link TupleBatch}. The view reads the batch's columns
+ * directly - its items change when it is moved to another row or the batch is modified.
+ */
+public class TupleBatchRow extends TupleImpl implements PrimitiveTuple
+{
+    private final TupleBatch batch;
+    private int row = 0;
+
+    public TupleBatchRow(TupleBatch batch)
+    {
+        this.batch = batch;
+    }
+
+    /**
+     * Move this view to the given row
+     *
+     * @param row row index
+     * @return this
+     */
+    public TupleBatchRow at(int row)
+    {
+        if ( (row < 0) || (row >= batch.size()) )
+        {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + batch.size());
+        }
+        this.row = row;
+        return this;
+    }
+
+    /**
+     * @return the row this view is positioned at
+     */
+    public int getRow()
+    {
+        return row;
+    }
+
+    @Override
+    public Object get(int index)
+    {
+        return batch.get(row, index);
+    }
+
+    @Override
+    public int size()
+    {
+        return batch.arity();
+    }
+
+    @Override
+    public Class<?> tuplePrimitiveType(int index)
+    {
+        return batch.getPrimitiveType(index);
+    }
+
+    @Override
+    public int tupleInt(int index)
+    {
+        return batch.getInt(row, index);
+    }
+
+    @Override
+    public long tupleLong(int index)
+    {
+        return batch.getLong(row, index);
+    }
+
+    @Override
+    public double tupleDouble(int index)
+    {
+        return batch.getDouble(row, index);
+    }
+
+    @Override
+    boolean isImmutable()
+    {
+        return false;
+    }
+}
@@ -16,44 +16,63 @@
 package io.soabase.halva.tuple.details;
 
 import io.soabase.halva.any.Any;
+import io.soabase.halva.any.AnyDouble;
+import io.soabase.halva.any.AnyInt;
+import io.soabase.halva.any.AnyLong;
+import io.soabase.halva.any.AnyPrimitive;
 import io.soabase.halva.tuple.ClassTuplable;
 import io.soabase.halva.tuple.ClassTuple;
+import io.soabase.halva.tuple.IndexedTuplable;
+import io.soabase.halva.tuple.PrimitiveTuple;
 import io.soabase.halva.tuple.Tuplable;
 import io.soabase.halva.tuple.Tuple;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 abstract class TupleImpl implements Tuple
 {
-    private final List<Object> items;
+    private static final Tuple nullTuple = Tuple.Tu(Void.TYPE);
+    private static final int NOT_PLAIN = Integer.MIN_VALUE;
 
-    protected TupleImpl(Object... items)
-    {
-        this.items = ((items == null) || (items.length == 0)) ? new ArrayList<>() : Collections.unmodifiableList(Arrays.asList(items));
-    }
+    // the items are only held in the fields of the subclasses - accessed via get(index)/size()
+
+    // cached hash code of a plain tuple (see isPlainItem()) - 0 if not yet computed, NOT_PLAIN if the tuple isn't
+    // plain or its hash code happens to be NOT_PLAIN. Tuples that aren't plain can contain Anys, lists, etc. whose
+    // hash codes change so they are re-hashed each time
+    private int hash;
+
+    @Override
+    public abstract Object get(int index);
+
+    @Override
+    public abstract int size();
 
     @Override
     public Iterator<Object> iterator()
     {
-        Iterator<Object> iterator = items.iterator();
         return new Iterator<Object>()
         {
+            private int index = 0;
+
             @Override
             public boolean hasNext()
             {
-                return iterator.hasNext();
+                return index < size();
             }
 
             @Override
             public Object next()
             {
-                return iterator.next();
+                if ( index >= size() )
+                {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
             }
         };
     }
@@ -74,21 +93,102 @@ abstract class TupleImpl implements Tuple
     @Override
     public int hashCode()
     {
-        return items.hashCode();
+        int localHash = hash;
+        if ( (localHash != 0) && (localHash != NOT_PLAIN) )
+        {
+            return localHash;
+        }
+
+        // same as List.hashCode()
+        int hashCode = 1;
+        boolean isPlain = true;
+        for ( int i = 0; i < size(); ++i )
+        {
+            hashCode = 31 * hashCode + itemHashCode(i);
+            isPlain = isPlain && isPlainItem(i);
+        }
+        if ( (localHash == 0) && isImmutable() )
+        {
+            hash = isPlain ? hashCode : NOT_PLAIN;
+        }
+        return hashCode;
     }
 
-    @Override
-    public String toString()
+    /**
+     * Return false for tuples whose items can change (i.e. views) - their hash code isn't cached
+     *
+     * @return true if the items never change
+     */
+    boolean isImmutable()
     {
-        return items.stream()
-            .map(item -> item instanceof String ? ("\"" + item + "\"") : String.valueOf(item))
-            .collect(Collectors.joining(", ", "(", ")"));
+        return true;
+    }
+
+    private boolean isPlain()
+    {
+        if ( !isImmutable() )
+        {
+            return false;
+        }
+        if ( hash == 0 )
+        {
+            hashCode();
+        }
+        return (hash != 0) && (hash != NOT_PLAIN);
+    }
+
+    private boolean isPlainItem(int index)
+    {
+        // plain items are immutable (so the cached hash code stays valid) and are only equal to items with the same
+        // hash code. Nested tuples of one item aren't plain as they're also equal to the item itself
+        if ( (this instanceof PrimitiveTuple) && (((PrimitiveTuple)this).tuplePrimitiveType(index) != null) )
+        {
+            return true;
+        }
+        Object item = get(index);
+        if ( item instanceof TupleImpl )
+        {
+            TupleImpl tuple = (TupleImpl)item;
+            return (tuple.size() != 1) && tuple.isPlain();
+        }
+        return (item == null)
+            || (item instanceof String)
+            || (item instanceof Integer)
+            || (item instanceof Long)
+            || (item instanceof Double)
+            || (item instanceof Boolean)
+            || (item instanceof Character)
+            || (item instanceof Float)
+            || (item instanceof Short)
+            || (item instanceof Byte)
+            || (item instanceof Enum);
+    }
+
+    private int itemHashCode(int index)
+    {
+        // primitive items hash the same as their boxed values
+        Class<?> primitiveType = (this instanceof PrimitiveTuple) ? ((PrimitiveTuple)this).tuplePrimitiveType(index) : null;
+        if ( primitiveType == Integer.TYPE )
+        {
+            return Integer.hashCode(((PrimitiveTuple)this).tupleInt(index));
+        }
+        if ( primitiveType == Long.TYPE )
+        {
+            return Long.hashCode(((PrimitiveTuple)this).tupleLong(index));
+        }
+        if ( primitiveType == Double.TYPE )
+        {
+            return Double.hashCode(((PrimitiveTuple)this).tupleDouble(index));
+        }
+        return Objects.hashCode(get(index));
     }
 
     @Override
-    public int size()
+    public String toString()
     {
-        return items.size();
+        return stream()
+            .map(item -> item instanceof String ? ("\"" + item + "\"") : String.valueOf(item))
+            .collect(Collectors.joining(", ", "(", ")"));
     }
 
     @Override
@@ -100,20 +200,32 @@ abstract class TupleImpl implements Tuple
     @Override
     public boolean contains(Object o)
     {
-        return items.contains(o);
+        for ( int i = 0; i < size(); ++i )
+        {
+            if ( Objects.equals(o, get(i)) )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Object[] toArray()
     {
-        return items.toArray();
+        Object[] array = new Object[size()];
+        for ( int i = 0; i < array.length; ++i )
+        {
+            array[i] = get(i);
+        }
+        return array;
     }
 
     @Override
     public <T> T[] toArray(T[] a)
     {
-        //noinspection ConstantConditions,SuspiciousToArrayCall
-        return items.toArray(a);
+        //noinspection SuspiciousToArrayCall
+        return Arrays.asList(toArray()).toArray(a);
     }
 
     @Override
@@ -131,7 +243,14 @@ abstract class TupleImpl implements Tuple
     @Override
     public boolean containsAll(Collection<?> c)
     {
-        return items.containsAll(c);
+        for ( Object o : c )
+        {
+            if ( !contains(o) )
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -166,19 +285,30 @@ abstract class TupleImpl implements Tuple
         }
         if ( o == null )
         {
-            o = Tuple.Tu(Void.TYPE);
+            o = nullTuple;
         }
 
-        if ( getClass() == o.getClass() )
+        if ( (o instanceof TupleImpl) && (((TupleImpl)o).size() == size()) && isPlain() && ((TupleImpl)o).isPlain() )
         {
-            TupleImpl objects = (TupleImpl)o;
-            return hasEqualItems(objects.items, processPredicates);
+            return hasEqualPlainItems((TupleImpl)o);
+        }
+
+        // tuples of the same size are compared item by item regardless of their classes (e.g. a Pair and a
+        // Tuple2 or a primitive tuple and a boxed tuple) - primitive tuples are read unboxed
+        if ( (o instanceof PrimitiveTuple) && (((PrimitiveTuple)o).size() == size()) )
+        {
+            return hasEqualItems((PrimitiveTuple)o, processPredicates);
+        }
+        if ( (o instanceof TupleImpl) && (((TupleImpl)o).size() == size()) )
+        {
+            TupleImpl rhs = (TupleImpl)o;
+            return (this instanceof PrimitiveTuple) ? rhs.hasEqualItems((PrimitiveTuple)this, processPredicates) : hasEqualItems(rhs, processPredicates);
         }
 
         // special case class tuples
-        if ( items.size() == 1 )
+        if ( size() == 1 )
         {
-            Object t = items.get(0);
+            Object t = get(0);
             if ( isClassTuple(t, o) )
             {
                 return checkClassTuple(t, o, processPredicates);
@@ -186,12 +316,17 @@ abstract class TupleImpl implements Tuple
         }
 
         //noinspection SimplifiableIfStatement
-        if ( Tuplable.class.isAssignableFrom(o.getClass()) )
+        if ( Tuplable.class.isAssignableFrom(o.getClass()) && !(o instanceof PrimitiveTuple) )
         {
-            return internalExtract(((Tuplable)o).tuple(), processPredicates);
+            // read the items directly rather than building the tuple
+            if ( (o instanceof IndexedTuplable) && (((IndexedTuplable)o).tupleSize() == size()) )
+            {
+                return hasEqualItems((IndexedTuplable)o, processPredicates);
+            }
+            return internalExtract(TupleMemo.tuple((Tuplable)o), processPredicates);
         }
 
-        return hasEqualItems(Collections.singletonList(o), processPredicates);
+        return (size() == 1) && hasEqualItem(get(0), o, processPredicates);
     }
 
     private boolean isClassTuple(Object t, Object o)
@@ -206,82 +341,187 @@ abstract class TupleImpl implements Tuple
             return false;
         }
 
-        Tuple resolved = ((ClassTuple)t).tuple();
+        Tuple resolved = TupleMemo.tuple((ClassTuple)t);
         return (resolved instanceof TupleImpl) && ((TupleImpl)resolved).internalExtract(o, processPredicates);
     }
 
-    @SuppressWarnings("unchecked")
-    private boolean hasEqualItems(List<Object> rhsItems, boolean processPredicates)
+    private boolean hasEqualPlainItems(TupleImpl rhs)
     {
-        if ( items.size() != rhsItems.size() )
+        // same result as the general rules below but without the per-item checks. Both tuples are plain so both
+        // hash codes are cached and valid - plain tuples with different hash codes can't be equal
+        if ( hash != rhs.hash )
         {
             return false;
         }
-        for ( int i = 0; i < items.size(); ++i )
+        if ( rhs instanceof PrimitiveTuple )
         {
-            Object lhs = items.get(i);
-            Object rhs = rhsItems.get(i);
-
-            if ( rhs instanceof Any )
+            return hasEqualItems((PrimitiveTuple)rhs, false);
+        }
+        if ( this instanceof PrimitiveTuple )
+        {
+            return rhs.hasEqualItems((PrimitiveTuple)this, false);
+        }
+        for ( int i = 0; i < size(); ++i )
+        {
+            Object item = get(i);
+            boolean isEqual = (item instanceof TupleImpl) ? ((TupleImpl)item).internalExtract(rhs.get(i), false) : Objects.equals(item, rhs.get(i));
+            if ( !isEqual )
             {
-                if ( ((Any)rhs).canSet(lhs) )
-                {
-                    ((Any)rhs).set(lhs);
-                    continue;
-                }
                 return false;
             }
-            if ( lhs instanceof Any )
+        }
+        return true;
+    }
+
+    private boolean hasEqualItems(TupleImpl rhs, boolean processPredicates)
+    {
+        if ( size() != rhs.size() )
+        {
+            return false;
+        }
+        for ( int i = 0; i < size(); ++i )
+        {
+            if ( !hasEqualItem(get(i), rhs.get(i), processPredicates) )
             {
-                if ( ((Any)lhs).canSet(rhs) )
-                {
-                    ((Any)lhs).set(rhs);
-                    continue;
-                }
                 return false;
             }
+        }
+        return true;
+    }
 
-            if ( lhs instanceof TupleImpl )
+    private boolean hasEqualItems(IndexedTuplable rhs, boolean processPredicates)
+    {
+        PrimitiveTuple primitiveThis = (this instanceof PrimitiveTuple) ? (PrimitiveTuple)this : null;
+        for ( int i = 0; i < size(); ++i )
+        {
+            boolean isEqual = ((primitiveThis != null) && (primitiveThis.tuplePrimitiveType(i) != null)) ? hasEqualPrimitive(primitiveThis, rhs, i, processPredicates) : hasEqualItem(get(i), rhs, i, processPredicates);
+            if ( !isEqual )
             {
-                if ( !((TupleImpl)lhs).internalExtract(rhs, processPredicates) )
-                {
-                    return false;
-                }
-                continue;
+                return false;
             }
+        }
+        return true;
+    }
 
-            if ( rhs instanceof TupleImpl )
+    private boolean hasEqualPrimitive(PrimitiveTuple lhs, IndexedTuplable rhs, int index, boolean processPredicates)
+    {
+        Class<?> primitiveType = lhs.tuplePrimitiveType(index);
+        if ( primitiveType == rhs.tuplePrimitiveType(index) )
+        {
+            if ( primitiveType == Integer.TYPE )
             {
-                if ( !((TupleImpl)rhs).internalExtract(lhs, processPredicates) )
-                {
-                    return false;
-                }
-                continue;
+                return lhs.tupleInt(index) == rhs.tupleInt(index);
             }
-
-            if ( processPredicates && (lhs instanceof Predicate) )
+            if ( primitiveType == Long.TYPE )
             {
-                if ( !((Predicate)lhs).test(rhs) )
-                {
-                    return false;
-                }
-                continue;
+                return lhs.tupleLong(index) == rhs.tupleLong(index);
             }
-
-            if ( isClassTuple(lhs, rhs) )
+            if ( primitiveType == Double.TYPE )
             {
-                if ( !checkClassTuple(lhs, rhs, processPredicates) )
-                {
-                    return false;
-                }
-                continue;
+                // same as Double.equals()
+                return Double.doubleToLongBits(lhs.tupleDouble(index)) == Double.doubleToLongBits(rhs.tupleDouble(index));
             }
+        }
+        return hasEqualItem(lhs.tupleItem(index), rhs, index, processPredicates);
+    }
+
+    private boolean hasEqualItem(Object item, IndexedTuplable rhs, int index, boolean processPredicates)
+    {
+        if ( item instanceof AnyPrimitive )
+        {
+            return bindPrimitive((AnyPrimitive)item, rhs, index);
+        }
+
+        // compare numeric literals to primitive items without boxing the item
+        if ( (item instanceof Integer) && (rhs.tuplePrimitiveType(index) == Integer.TYPE) )
+        {
+            return (Integer)item == rhs.tupleInt(index);
+        }
+        if ( (item instanceof Long) && (rhs.tuplePrimitiveType(index) == Long.TYPE) )
+        {
+            return (Long)item == rhs.tupleLong(index);
+        }
+        if ( (item instanceof Double) && (rhs.tuplePrimitiveType(index) == Double.TYPE) )
+        {
+            // same as Double.equals()
+            return Double.doubleToLongBits((Double)item) == Double.doubleToLongBits(rhs.tupleDouble(index));
+        }
+
+        return hasEqualItem(item, rhs.tupleItem(index), processPredicates);
+    }
 
-            if ( !lhs.equals(rhs) )
+    private static boolean bindPrimitive(AnyPrimitive binder, IndexedTuplable tuplable, int index)
+    {
+        Class<?> primitiveType = tuplable.tuplePrimitiveType(index);
+        if ( (primitiveType == Integer.TYPE) && (binder instanceof AnyInt) )
+        {
+            ((AnyInt)binder).set(tuplable.tupleInt(index));
+            return true;
+        }
+        if ( (primitiveType == Long.TYPE) && (binder instanceof AnyLong) )
+        {
+            ((AnyLong)binder).set(tuplable.tupleLong(index));
+            return true;
+        }
+        if ( (primitiveType == Double.TYPE) && (binder instanceof AnyDouble) )
+        {
+            ((AnyDouble)binder).set(tuplable.tupleDouble(index));
+            return true;
+        }
+        return binder.setBoxed(tuplable.tupleItem(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean hasEqualItem(Object lhs, Object rhs, boolean processPredicates)
+    {
+        if ( rhs instanceof Any )
+        {
+            if ( ((Any)rhs).canSet(lhs) )
             {
-                return false;
+                ((Any)rhs).set(lhs);
+                return true;
             }
+            return false;
         }
-        return true;
+        if ( lhs instanceof Any )
+        {
+            if ( ((Any)lhs).canSet(rhs) )
+            {
+                ((Any)lhs).set(rhs);
+                return true;
+            }
+            return false;
+        }
+
+        if ( rhs instanceof AnyPrimitive )
+        {
+            return ((AnyPrimitive)rhs).setBoxed(lhs);
+        }
+        if ( lhs instanceof AnyPrimitive )
+        {
+            return ((AnyPrimitive)lhs).setBoxed(rhs);
+        }
+
+        if ( lhs instanceof TupleImpl )
+        {
+            return ((TupleImpl)lhs).internalExtract(rhs, processPredicates);
+        }
+
+        if ( rhs instanceof TupleImpl )
+        {
+            return ((TupleImpl)rhs).internalExtract(lhs, processPredicates);
+        }
+
+        if ( processPredicates && (lhs instanceof Predicate) )
+        {
+            return ((Predicate)lhs).test(rhs);
+        }
+
+        if ( isClassTuple(lhs, rhs) )
+        {
+            return checkClassTuple(lhs, rhs, processPredicates);
+        }
+
+        return Objects.equals(lhs, rhs);
     }
 }
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2016 Jordan Zimmerman
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.soabase.halva.tuple.details;
+
+import io.soabase.halva.tuple.Tuplable;
+import io.soabase.halva.tuple.Tuple;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Per-thread memo of {@link Tuplable#tuple()} results. Extracting a value from a
+ *     case class (or a case class pattern) calls <code>tuple()</code> which allocates a new
+ *     tuple each time. A matcher tries each of its cases against the same value so, while
+ *     a scope is open, the tuple of each tuplable is computed once and reused for the remaining cases.
+ * </p>
+ *
+ * <p>
+ *     Used internally by the matchers - scopes nest (for matches inside of guards or procs) and
+ *     entering/exiting does not allocate. Outside of a scope tuples are not memoized.
+ * </p>
+ */
+public final class TupleMemo
+{
+    private static final int MAX_ENTRIES = 64;
+
+    private static final ThreadLocal<Memo> memo = ThreadLocal.withInitial(Memo::new);
+
+    private static class Memo
+    {
+        private Tuplable[] keys = new Tuplable[8];
+        private Tuple[] values = new Tuple[8];
+        private int size = 0;
+        private int[] starts = new int[4];
+        private int depth = 0;
+
+        private Tuple tuple(Tuplable tuplable)
+        {
+            int start = starts[depth - 1];
+            for ( int i = start; i < size; ++i )
+            {
+                if ( keys[i] == tuplable )
+                {
+                    return values[i];
+                }
+            }
+
+            Tuple tuple = tuplable.tuple();
+            if ( (size - start) < MAX_ENTRIES )
+            {
+                if ( size == keys.length )
+                {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                keys[size] = tuplable;
+                values[size] = tuple;
+                ++size;
+            }
+            return tuple;
+        }
+
+        private void enter()
+        {
+            if ( depth == starts.length )
+            {
+                starts = Arrays.copyOf(starts, depth * 2);
+            }
+            starts[depth++] = size;
+        }
+
+        private void exit()
+        {
+            int start = starts[--depth];
+            Arrays.fill(keys, start, size, null);
+            Arrays.fill(values, start, size, null);
+            size = start;
+        }
+    }
+
+    /**
+     * Open a new scope for the current thread. Must be balanced by a call to {@link #exit()}
+     */
+    public static void enter()
+    {
+        memo.get().enter();
+    }
+
+    /**
+     * Close the current scope, releasing its tuples
+     */
+    public static void exit()
+    {
+        memo.get().exit();
+    }
+
+    static Tuple tuple(Tuplable tuplable)
+    {
+        Memo localMemo = memo.get();
+        return (localMemo.depth > 0) ? localMemo.tuple(tuplable) : tuplable.tuple();
+    }
+
+    private TupleMemo()
+    {
+    }
+}